@@ -15,6 +15,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - @EnableAutoConfiguration: Tells Spring Boot to auto-configure the application
  * - @ComponentScan: Tells Spring to scan for components in the current package and subpackages
  * 
+ * The @Scheduled background jobs, such as the periodic product catalog
+ * refresh, are activated by SchedulingConfig.
+ * 
  * Key application features:
  * - RESTful API for order management
  * - Firebase authentication integration
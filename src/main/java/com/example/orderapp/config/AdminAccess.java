@@ -0,0 +1,47 @@
+package com.example.orderapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Admin Access Check
+ *
+ * Firebase tokens only carry a user ID, so administrative endpoints are
+ * restricted to an explicit allow-list of Firebase UIDs configured through
+ * the app.admin.uids property (comma separated).
+ *
+ * In development mode, where authentication is disabled entirely, every
+ * caller is treated as an administrator.
+ */
+@Component
+public class AdminAccess {
+
+    private final Set<String> adminUids;
+
+    private final boolean developmentMode;
+
+    public AdminAccess(@Value("${app.admin.uids:}") Set<String> adminUids,
+                       @Value("${app.auth.development-mode:false}") boolean developmentMode) {
+        this.adminUids = adminUids;
+        this.developmentMode = developmentMode;
+    }
+
+    /**
+     * Verify that the caller is an administrator
+     *
+     * @param auth The authentication of the current request, may be null in development mode
+     * @throws AccessDeniedException if the caller is not an administrator
+     */
+    public void requireAdmin(Authentication auth) {
+        if (developmentMode) {
+            return;
+        }
+        if (auth == null || !adminUids.contains(auth.getName())) {
+            throw new AccessDeniedException("Administrator access required");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orderapp.config;
 
+import com.example.orderapp.monitoring.RequestTimings;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
@@ -65,7 +66,7 @@ public class FirebaseSecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JitWarmup jitWarmup) throws Exception {
         // Initialize Firebase
         if (FirebaseApp.getApps().isEmpty() && !developmentMode) {
             try {
@@ -102,6 +103,9 @@ public class FirebaseSecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Enable CORS
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        // Signs in the warm-up's own loopback requests; must run before the Firebase filter
+        http.addFilterBefore(jitWarmup.authenticationFilter(), UsernamePasswordAuthenticationFilter.class);
         
         // Only add authentication filter if not in development mode
         if (!developmentMode && firebaseInitialized) {
@@ -117,6 +121,12 @@ public class FirebaseSecurityConfig {
                         return;
                     }
                     
+                    // Skip requests that were already signed in, such as warm-up requests
+                    if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                        chain.doFilter(req, res);
+                        return;
+                    }
+
                     // Skip authentication for health endpoint
                     String requestPath = req.getRequestURI();
                     if (requestPath.equals("/api/health")) {
@@ -126,16 +136,20 @@ public class FirebaseSecurityConfig {
                     
                     String token = req.getHeader("Authorization");
                     if (token != null && token.startsWith("Bearer ")) {
+                        long authStart = System.nanoTime();
                         try {
                             var decoded = com.google.firebase.auth.FirebaseAuth
                                     .getInstance()
                                     .verifyIdToken(token.substring(7));
+                            RequestTimings.record(RequestTimings.Phase.AUTH, authStart);
                             var auth = new UsernamePasswordAuthenticationToken(
                                     decoded.getUid(), null, null);
                             SecurityContextHolder.getContext().setAuthentication(auth);
                             chain.doFilter(req, res);
                         } catch (Exception e) {
-                            logger.error("Failed to verify Firebase token", e);
+                            RequestTimings.record(RequestTimings.Phase.AUTH, authStart);
+                            // A client error, so no stack trace
+                            logger.warn("Failed to verify Firebase token: " + e.getMessage());
                             res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                             res.getWriter().write("Invalid Authentication token");
                         }
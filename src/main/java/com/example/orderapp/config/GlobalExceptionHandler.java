@@ -1,10 +1,15 @@
 package com.example.orderapp.config;
 
+import com.example.orderapp.service.InsufficientStockException;
+import com.example.orderapp.service.InvalidRequestException;
+import com.example.orderapp.service.OrderNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +30,97 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Handles invalid client input such as unknown products or invalid filter,
+     * paging or date range parameters. Other IllegalArgumentExceptions are
+     * programming errors and fall through to the generic 500 handler, so their
+     * messages never reach the client.
+     * 
+     * @param ex The InvalidRequestException that was thrown
+     * @param request The current web request
+     * @return A 400 Bad Request response with the validation message
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleBadRequest(InvalidRequestException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles request parameters and path variables that cannot be converted to
+     * their declared type, such as from=abc or a non-numeric order ID.
+     *
+     * @param ex The MethodArgumentTypeMismatchException that was thrown
+     * @param request The current web request
+     * @return A 400 Bad Request response naming the offending parameter
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatch(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", "Invalid value for parameter '" + ex.getName() + "'");
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles callers that are authenticated but not allowed to use an endpoint,
+     * such as non-administrators calling the admin API.
+     * 
+     * @param ex The AccessDeniedException that was thrown
+     * @param request The current web request
+     * @return A 403 Forbidden response
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Object> handleForbidden(AccessDeniedException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.FORBIDDEN.value());
+        body.put("error", "Forbidden");
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Handles orders that ask for more units than are in stock.
+     * 
+     * @param ex The InsufficientStockException that was thrown
+     * @param request The current web request
+     * @return A 409 Conflict response
+     */
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Object> handleInsufficientStock(InsufficientStockException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Out of Stock");
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles lookups of orders that do not exist or belong to another user.
+     * Both cases get the same response so that order IDs cannot be probed.
+     * 
+     * @param ex The OrderNotFoundException that was thrown
+     * @param request The current web request
+     * @return A 404 Not Found response
+     */
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<Object> handleOrderNotFound(OrderNotFoundException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.NOT_FOUND.value());
+        body.put("error", "Not Found");
+        body.put("message", ex.getMessage());
+        
+        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    }
+
     /**
      * Handles all RuntimeExceptions with special handling for Firebase initialization errors.
      * 
@@ -0,0 +1,333 @@
+package com.example.orderapp.config;
+
+import com.example.orderapp.service.InventoryService;
+import com.example.orderapp.service.ProductCatalog;
+import com.example.orderapp.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.FirebaseApp;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * JIT Warm-up
+ *
+ * Right after startup the order endpoints run in the interpreter and on cold
+ * Hibernate and Jackson caches. This component sends synthetic HTTP requests to
+ * the application's own port before the instance is marked ready, so they take
+ * the same path as real traffic: the servlet container, the security and
+ * monitoring filters, Spring MVC, the services and JSON (de)serialization.
+ * - POST /api/orders: pricing, stock reservation and the INSERT
+ * - GET /api/orders/history and the filtered history search
+ * - once, before the others, a request with an unsigned Firebase ID token,
+ *   which the authentication filter rejects after parsing it (only when
+ *   Firebase is initialized)
+ *
+ * Warm-up requests authenticate with a random token that is only valid from
+ * the loopback address while the warm-up runs. The WarmupAuthenticationFilter
+ * signs them in as a synthetic user and runs each of them in a transaction on
+ * that user's shard that is always rolled back, so no synthetic order is ever
+ * committed and reserved stock is given back.
+ *
+ * Spring Boot only publishes ReadinessState.ACCEPTING_TRAFFIC after all
+ * ApplicationReadyEvent listeners have returned, so the readiness probe keeps
+ * reporting OUT_OF_SERVICE until the warm-up has finished or timed out.
+ */
+@Component
+public class JitWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWarmup.class);
+
+    /**
+     * Header carrying the warm-up token
+     */
+    static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    /**
+     * Abort early if this many consecutive iterations fail
+     */
+    private static final int MAX_CONSECUTIVE_FAILURES = 20;
+
+    private final ProductCatalog catalog;
+    private final InventoryService inventory;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter router;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeout;
+
+    /**
+     * Token accepted by the WarmupAuthenticationFilter; null when no warm-up is running
+     */
+    private volatile String token;
+
+    private final String userId = "warmup-" + UUID.randomUUID();
+
+    public JitWarmup(ProductCatalog catalog,
+                     InventoryService inventory,
+                     ObjectMapper objectMapper,
+                     TransactionTemplate transactionTemplate,
+                     ShardRouter router,
+                     ApplicationEventPublisher eventPublisher,
+                     @Value("${app.warmup.enabled:false}") boolean enabled,
+                     @Value("${app.warmup.iterations:2000}") int iterations,
+                     @Value("${app.warmup.timeout:PT30S}") Duration timeout) {
+        this.catalog = catalog;
+        this.inventory = inventory;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.router = router;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Run the warm-up against the embedded web server once the application has started
+     *
+     * @param event The event carrying the application context
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!(event.getApplicationContext() instanceof WebServerApplicationContext context)
+                || context.getWebServer() == null) {
+            logger.warn("No embedded web server, skipping warm-up");
+            return;
+        }
+        warmUp(URI.create("http://127.0.0.1:" + context.getWebServer().getPort()));
+    }
+
+    /**
+     * Run the warm-up, blocking readiness until it completes or times out
+     *
+     * @param baseUri Base URI of the application
+     * @return The number of iterations completed, or -1 if the warm-up timed out or failed
+     */
+    int warmUp(URI baseUri) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        long start = System.nanoTime();
+        int completed = -1;
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "jit-warmup"));
+        token = newToken();
+        try {
+            Future<Integer> result = executor.submit(() -> runIterations(baseUri));
+            try {
+                completed = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                logger.info("Warm-up finished {} iterations in {} ms", completed, (System.nanoTime() - start) / 1_000_000);
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                logger.warn("Warm-up timed out after {}, accepting traffic anyway", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Warm-up failed, accepting traffic anyway", e);
+        } finally {
+            token = null;
+            executor.shutdownNow();
+        }
+
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        return completed;
+    }
+
+    private int runIterations(URI baseUri) throws Exception {
+        String productId = pickProduct();
+        if (productId == null) {
+            logger.warn("No orderable product in the catalog, warming up read paths only");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String authToken = token;
+        HttpRequest placeOrder = productId == null ? null : request(baseUri, "/api/orders", authToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                        Map.of("productId", productId, "quantity", 1))))
+                .build();
+        List<HttpRequest> reads = List.of(
+                request(baseUri, "/api/orders/history", authToken).GET().build(),
+                request(baseUri, "/api/orders/history/search?sortBy=orderTime&size=20"
+                        + (productId != null ? "&productId=" + URLEncoder.encode(productId, StandardCharsets.UTF_8) : ""),
+                        authToken).GET().build());
+        HttpRequest unsignedToken = FirebaseApp.getApps().isEmpty() ? null
+                : HttpRequest.newBuilder(baseUri.resolve("/api/orders/history"))
+                        .header("Authorization", "Bearer " + syntheticIdToken())
+                        .GET().build();
+
+        if (unsignedToken != null) {
+            // Sent once only: every rejection is logged by the authentication filter
+            try {
+                send(client, unsignedToken, 401);
+            } catch (IOException | IllegalStateException e) {
+                logger.warn("Warm-up request with an unsigned token failed: {}", e.getMessage());
+            }
+        }
+
+        int failures = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return i;
+            }
+            try {
+                if (placeOrder != null) {
+                    send(client, placeOrder, 200);
+                }
+                for (HttpRequest read : reads) {
+                    send(client, read, 200);
+                }
+                failures = 0;
+            } catch (IOException | IllegalStateException e) {
+                if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                    throw e;
+                }
+            }
+        }
+        return iterations;
+    }
+
+    private static HttpRequest.Builder request(URI baseUri, String path, String authToken) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(10))
+                .header(TOKEN_HEADER, authToken);
+    }
+
+    private static void send(HttpClient client, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath()
+                    + " answered " + status + " during warm-up");
+        }
+    }
+
+    /**
+     * Pick a product that can be ordered without running into a stock limit
+     */
+    private String pickProduct() {
+        for (String productId : catalog.current().productIds()) {
+            if (inventory.available(productId) > 0) {
+                return productId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create the filter that signs in warm-up requests, for the security filter chain
+     *
+     * @return A new filter bound to this warm-up
+     */
+    public OncePerRequestFilter authenticationFilter() {
+        return new WarmupAuthenticationFilter();
+    }
+
+    /**
+     * Signs in requests that carry the current warm-up token as the synthetic
+     * warm-up user and runs them in a transaction that is rolled back. Requests
+     * without the header are passed on untouched.
+     */
+    private final class WarmupAuthenticationFilter extends OncePerRequestFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return request.getHeader(TOKEN_HEADER) == null;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String expected = token;
+            if (expected == null || !isLoopback(request) || !MessageDigest.isEqual(
+                    expected.getBytes(StandardCharsets.UTF_8),
+                    request.getHeader(TOKEN_HEADER).getBytes(StandardCharsets.UTF_8))) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid warm-up token");
+                return;
+            }
+
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+            try {
+                router.onShardOf(userId, () -> transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    try {
+                        chain.doFilter(request, response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (ServletException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return null;
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean isLoopback(HttpServletRequest request) {
+            try {
+                return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String syntheticIdToken() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = "{\"alg\":\"RS256\",\"kid\":\"warmup\",\"typ\":\"JWT\"}";
+        String payload = "{\"sub\":\"warmup\",\"aud\":\"warmup\",\"iat\":0,\"exp\":0}";
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(new byte[256]);
+    }
+}
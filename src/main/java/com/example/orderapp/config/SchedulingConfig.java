@@ -0,0 +1,20 @@
+package com.example.orderapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ *
+ * Activates the @Scheduled background jobs: the product catalog refresh, the
+ * stock ledger flush and reconciliation, and the daily sales rollup.
+ *
+ * Setting app.scheduling.enabled=false turns all of them off, for example in
+ * tests that run the jobs explicitly and must not race with a scheduled run.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,155 @@
+package com.example.orderapp.controller;
+
+import com.example.orderapp.config.AdminAccess;
+import com.example.orderapp.service.ImportReport;
+import com.example.orderapp.service.InvalidRequestException;
+import com.example.orderapp.service.OrderImportService;
+import com.example.orderapp.sharding.RebalanceReport;
+import com.example.orderapp.sharding.ShardRebalancer;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admin Controller
+ * 
+ * This controller exposes administrative operations that are restricted to
+ * the Firebase UIDs configured in app.admin.uids (see AdminAccess).
+ * 
+ * Key responsibilities:
+ * - Bulk import of historical orders
+ * - Reporting the progress of a running import
+ * - Rebalancing orders after the shard list has changed
+ * - Second-level cache statistics
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    /**
+     * Accepted values of the import format parameter
+     */
+    private static final Map<String, OrderImportService.Format> IMPORT_FORMATS = Map.of(
+            "csv", OrderImportService.Format.CSV,
+            "ndjson", OrderImportService.Format.NDJSON);
+
+    private final OrderImportService importService;
+
+    private final ShardRebalancer rebalancer;
+
+    private final Statistics statistics;
+
+    private final AdminAccess adminAccess;
+
+    public AdminController(OrderImportService importService, ShardRebalancer rebalancer,
+                           EntityManagerFactory entityManagerFactory, AdminAccess adminAccess) {
+        this.importService = importService;
+        this.rebalancer = rebalancer;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.adminAccess = adminAccess;
+    }
+
+    /**
+     * Bulk import of historical orders
+     * 
+     * The request body is streamed straight from the socket into the database
+     * in chunks, so files with millions of rows can be uploaded without being
+     * buffered in memory. The call returns once the whole body has been loaded.
+     * 
+     * Example: curl -X POST -H "Content-Type: text/csv" --data-binary @orders.csv \
+     *          "/api/admin/orders/import?format=csv"
+     * 
+     * @param format Input format, "csv" (default) or "ndjson"
+     * @param request The raw HTTP request whose body is the input file (UTF-8)
+     * @param auth The authentication object containing the caller's identity
+     * @return The final import report
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping("/orders/import")
+    public ResponseEntity<ImportReport> importOrders(@RequestParam(defaultValue = "csv") String format,
+                                                     HttpServletRequest request,
+                                                     Authentication auth) throws IOException {
+        adminAccess.requireAdmin(auth);
+        OrderImportService.Format inputFormat = IMPORT_FORMATS.get(format.toLowerCase(Locale.ROOT));
+        if (inputFormat == null) {
+            throw new InvalidRequestException("Unsupported format, expected one of: csv, ndjson");
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), 64 * 1024)) {
+            return ResponseEntity.ok(importService.importOrders(reader, inputFormat));
+        }
+    }
+
+    /**
+     * Progress of the most recently started import
+     * 
+     * @param auth The authentication object containing the caller's identity
+     * @return The live report of the last import, or 404 if none has run yet
+     */
+    @GetMapping("/orders/import/status")
+    public ResponseEntity<ImportReport> importStatus(Authentication auth) {
+        adminAccess.requireAdmin(auth);
+        ImportReport report = importService.getLastImport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Move orders to the shard that owns their user
+     * 
+     * Run after appending a shard to app.sharding.shards. Defaults to a dry run
+     * that only reports how many users and orders are misplaced; safe to repeat.
+     * 
+     * @param dryRun Whether to only report instead of moving orders
+     * @param auth The authentication object containing the caller's identity
+     * @return The rebalance report with the order counts per shard
+     */
+    @PostMapping("/shards/rebalance")
+    public ResponseEntity<RebalanceReport> rebalanceShards(@RequestParam(defaultValue = "true") boolean dryRun,
+                                                           Authentication auth) {
+        adminAccess.requireAdmin(auth);
+        return ResponseEntity.ok(rebalancer.rebalance(dryRun));
+    }
+
+    /**
+     * Statistics of the order entity cache since startup
+     * 
+     * Reports the hits, misses and puts of the "orders" second-level cache
+     * region and the resulting hit ratio, together with the number of entities
+     * loaded from the database. Counts are per instance.
+     * 
+     * @param auth The authentication object containing the caller's identity
+     * @return The cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats(Authentication auth) {
+        adminAccess.requireAdmin(auth);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        response.put("since", statistics.getStart().toString());
+
+        CacheRegionStatistics orders = statistics.getDomainDataRegionStatistics("orders");
+        long hits = orders.getHitCount();
+        long misses = orders.getMissCount();
+        response.put("region", orders.getRegionName());
+        response.put("hits", hits);
+        response.put("misses", misses);
+        response.put("puts", orders.getPutCount());
+        response.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        response.put("elementsInMemory", orders.getElementCountInMemory());
+        response.put("entitiesLoadedFromDatabase", statistics.getEntityLoadCount());
+        return ResponseEntity.ok(response);
+    }
+}
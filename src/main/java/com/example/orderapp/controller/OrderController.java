@@ -1,9 +1,14 @@
 package com.example.orderapp.controller;
 
 import com.example.orderapp.model.Order;
+import com.example.orderapp.service.CatalogSnapshot;
 import com.example.orderapp.service.OrderService;
+import com.example.orderapp.service.ProductCatalog;
 import com.example.orderapp.repository.OrderRepository;
+import com.example.orderapp.sharding.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +25,8 @@ import java.util.Map;
  * It exposes RESTful API endpoints that allow clients to:
  * - Place new orders
  * - View order history
+ * - View a single order
+ * - Search order history with server-side filters and pagination
  * - Perform system health checks
  * 
  * The controller uses Firebase authentication to identify users and ensure they
@@ -38,17 +45,32 @@ public class OrderController {
      * Used primarily for diagnostic endpoints
      */
     private final OrderRepository repository;
+
+    /**
+     * Product catalog, reported by the diagnostic endpoint
+     */
+    private final ProductCatalog catalog;
+
+    /**
+     * Shard router, used by the diagnostic endpoints that bypass the service
+     */
+    private final ShardRouter router;
     
     /**
      * Constructor for dependency injection of required services
      * 
      * @param service The order service for business logic operations
      * @param repository The order repository for data access
+     * @param catalog The product catalog used for pricing
+     * @param router The shard router for order data
      */
     @Autowired
-    public OrderController(OrderService service, OrderRepository repository) {
+    public OrderController(OrderService service, OrderRepository repository, ProductCatalog catalog,
+                           ShardRouter router) {
         this.service = service;
         this.repository = repository;
+        this.catalog = catalog;
+        this.router = router;
     }
 
     /**
@@ -56,7 +78,8 @@ public class OrderController {
      * 
      * This endpoint should be called after a successful payment has been processed.
      * The user ID is automatically extracted from the authentication context,
-     * so the client doesn't need to provide it.
+     * so the client doesn't need to provide it. The amount is computed on the
+     * server from the product catalog; any amount in the request is ignored.
      * 
      * @param order The order details from the request body
      * @param auth The authentication object containing the user's identity
@@ -82,14 +105,67 @@ public class OrderController {
     public List<Order> history(Authentication auth) {
         return service.getHistory(auth.getName());
     }
+
+    /**
+     * Endpoint to retrieve a single order of the authenticated user
+     * 
+     * Used by the order confirmation and receipt screens. Responds with 404
+     * if the order does not exist or belongs to another user.
+     * 
+     * @param id The order ID
+     * @param auth The authentication object containing the user's identity
+     * @return The order
+     */
+    @GetMapping("/{id}")
+    public Order getOrder(@PathVariable Long id, Authentication auth) {
+        return service.getOrder(auth.getName(), id);
+    }
+
+    /**
+     * Endpoint to search the order history of the authenticated user
+     * 
+     * Filtering, sorting and pagination are all performed by the database, so
+     * clients no longer need to download the full history to answer questions
+     * like "orders for product X last month" or "orders over 500".
+     * 
+     * Example: GET /api/orders/history/search?productId=milk&from=2024-05-01T00:00:00Z&minAmount=500
+     * 
+     * @param from Inclusive lower bound on the order time (ISO-8601), optional
+     * @param to Exclusive upper bound on the order time (ISO-8601), optional
+     * @param productId Product to restrict to, optional
+     * @param minAmount Inclusive lower bound on the amount, optional
+     * @param maxAmount Inclusive upper bound on the amount, optional
+     * @param sortBy Field to sort by: "orderTime" (default) or "amount"
+     * @param direction Sort direction: "desc" (default) or "asc"
+     * @param page Zero-based page index
+     * @param size Page size, at most 100
+     * @param auth The authentication object containing the user's identity
+     * @return A page of matching orders with paging metadata
+     */
+    @GetMapping("/history/search")
+    public Page<Order> searchHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(defaultValue = "orderTime") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth) {
+        return service.searchHistory(auth.getName(), from, to, productId, minAmount, maxAmount,
+                sortBy, "asc".equalsIgnoreCase(direction), page, size);
+    }
     
     /**
      * System health check endpoint
      * 
      * This diagnostic endpoint verifies:
      * - API availability
-     * - Database connectivity
+     * - Database connectivity of every shard
      * - Order entity mapping
+     * - Product catalog snapshot freshness
      * 
      * It's useful for monitoring systems and troubleshooting.
      * 
@@ -103,9 +179,15 @@ public class OrderController {
         // Current timestamp for freshness verification
         response.put("timestamp", Instant.now().toString());
         
-        // Get total count of orders in the database to verify DB connectivity
-        long orderCount = repository.count();
-        response.put("totalOrders", orderCount);
+        // Count the orders on every shard in parallel to verify DB connectivity
+        List<Long> shardCounts = router.scatter(shard -> repository.count());
+        response.put("totalOrders", shardCounts.stream().mapToLong(Long::longValue).sum());
+        response.put("ordersPerShard", shardCounts);
+
+        // Report which product catalog snapshot is being used for pricing
+        CatalogSnapshot snapshot = catalog.current();
+        response.put("catalogVersion", snapshot.getVersion());
+        response.put("catalogProducts", snapshot.size());
         
         // Create a test order object (will not be saved)
         // This validates that the Order entity is properly configured
@@ -145,8 +227,8 @@ public class OrderController {
         testOrder.setAmount(99.99);
         testOrder.setOrderTime(Instant.now());
         
-        // Save directly to the repository, bypassing service layer
-        Order savedOrder = repository.save(testOrder);
+        // Save directly to the repository on the user's shard, bypassing service layer
+        Order savedOrder = router.onShardOf(testOrder.getUserId(), () -> repository.save(testOrder));
         return ResponseEntity.ok(savedOrder);
     }
 }
\ No newline at end of file
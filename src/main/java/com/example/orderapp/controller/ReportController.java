@@ -0,0 +1,92 @@
+package com.example.orderapp.controller;
+
+import com.example.orderapp.config.AdminAccess;
+import com.example.orderapp.model.DailySalesRollup;
+import com.example.orderapp.service.InvalidRequestException;
+import com.example.orderapp.service.SalesReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Report Controller
+ * 
+ * This controller serves the sales figures for the ops dashboard. All reports
+ * are read from the pre-aggregated daily_sales_rollup table, never from the
+ * raw orders table, so their cost does not grow with the order history.
+ * 
+ * Figures lag live orders by up to the rollup interval plus twice the settle delay
+ * (see SalesRollupService). Every shard keeps its own rollup, which the
+ * SalesReportService merges. Access is restricted to administrators.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    /**
+     * Longest date range a single report may cover
+     */
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private final SalesReportService reportService;
+
+    private final AdminAccess adminAccess;
+
+    public ReportController(SalesReportService reportService, AdminAccess adminAccess) {
+        this.reportService = reportService;
+        this.adminAccess = adminAccess;
+    }
+
+    /**
+     * Revenue and volume per product per day
+     * 
+     * Example: GET /api/reports/daily-sales?from=2024-05-01&to=2024-05-31&productId=milk
+     * 
+     * @param from First day, inclusive (ISO date)
+     * @param to Last day, inclusive (ISO date)
+     * @param productId Product to restrict to, optional
+     * @param auth The authentication object containing the caller's identity
+     * @return Rollup rows ordered by day and product
+     */
+    @GetMapping("/daily-sales")
+    public List<DailySalesRollup> dailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String productId,
+            Authentication auth) {
+        adminAccess.requireAdmin(auth);
+        checkRange(from, to);
+        return reportService.dailySales(from, to, productId != null && !productId.isBlank() ? productId : null);
+    }
+
+    /**
+     * Revenue and volume per day across all products
+     * 
+     * @param from First day, inclusive (ISO date)
+     * @param to Last day, inclusive (ISO date)
+     * @param auth The authentication object containing the caller's identity
+     * @return One row per day that had orders, ordered by day
+     */
+    @GetMapping("/daily-totals")
+    public List<SalesReportService.MergedTotals> dailyTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth) {
+        adminAccess.requireAdmin(auth);
+        checkRange(from, to);
+        return reportService.dailyTotals(from, to);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
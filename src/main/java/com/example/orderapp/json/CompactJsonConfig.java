@@ -0,0 +1,59 @@
+package com.example.orderapp.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Compact JSON Configuration
+ *
+ * Clients opt in to the compact order format (see OrderCompactSerializer) per
+ * request with "Accept: application/vnd.grocery.compact+json". Everything else,
+ * including Accept: application/json and *&#47;*, keeps the standard format with
+ * the amount in rupees and ISO-8601 order times.
+ *
+ * The Jackson converter picks its ObjectMapper by media type. application/json
+ * is registered first so it stays the preferred type when the client accepts
+ * anything.
+ */
+@Configuration
+public class CompactJsonConfig implements WebMvcConfigurer {
+
+    /**
+     * Media type of the compact JSON format
+     */
+    public static final String COMPACT_JSON_VALUE = "application/vnd.grocery.compact+json";
+
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    private static final MediaType ANY_JSON = new MediaType("application", "*+json");
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                registerCompactFormat(jackson);
+            }
+        }
+    }
+
+    /**
+     * Serve COMPACT_JSON from a copy of the converter's ObjectMapper with the compact order serializer
+     *
+     * @param converter The Jackson converter to extend
+     */
+    static void registerCompactFormat(MappingJackson2HttpMessageConverter converter) {
+        ObjectMapper standard = converter.getObjectMapper();
+        ObjectMapper compact = standard.copy().registerModule(OrderCompactSerializer.module());
+        converter.registerObjectMappersForType(Object.class, mappers -> {
+            mappers.put(MediaType.APPLICATION_JSON, standard);
+            mappers.put(COMPACT_JSON, compact);
+            mappers.put(ANY_JSON, standard);
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orderapp.json;
+
+import com.example.orderapp.model.Order;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Compact Order Serializer
+ *
+ * Writes an Order in the compact JSON format:
+ * <pre>
+ * {"id":42,"userId":"uid","productId":"milk","quantity":2,"amountPaise":10500,"orderTime":1714557600000}
+ * </pre>
+ * The amount is an integer number of paise and the order time is in epoch
+ * milliseconds, so no floating point or date formatting takes place. Field
+ * names are pre-encoded once and the fields are written straight to the
+ * generator without bean introspection, which keeps the per-order allocation
+ * down to the Instant's millisecond conversion.
+ */
+public class OrderCompactSerializer extends StdSerializer<Order> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString PRODUCT_ID = new SerializedString("productId");
+    private static final SerializableString QUANTITY = new SerializedString("quantity");
+    private static final SerializableString AMOUNT_PAISE = new SerializedString("amountPaise");
+    private static final SerializableString ORDER_TIME = new SerializedString("orderTime");
+
+    public OrderCompactSerializer() {
+        super(Order.class);
+    }
+
+    /**
+     * Create a Jackson module that serializes orders in the compact format
+     * @return The module
+     */
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("CompactOrderJson");
+        module.addSerializer(Order.class, new OrderCompactSerializer());
+        return module;
+    }
+
+    @Override
+    public void serialize(Order order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(order, 6);
+
+        gen.writeFieldName(ID);
+        Long id = order.getId();
+        if (id != null) {
+            gen.writeNumber(id.longValue());
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeFieldName(USER_ID);
+        gen.writeString(order.getUserId());
+
+        gen.writeFieldName(PRODUCT_ID);
+        gen.writeString(order.getProductId());
+
+        gen.writeFieldName(QUANTITY);
+        gen.writeNumber(order.getQuantity());
+
+        gen.writeFieldName(AMOUNT_PAISE);
+        gen.writeNumber(order.getAmountPaise());
+
+        gen.writeFieldName(ORDER_TIME);
+        Instant orderTime = order.getOrderTime();
+        if (orderTime != null) {
+            gen.writeNumber(orderTime.toEpochMilli());
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.orderapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Daily Sales Rollup Entity
+ * 
+ * Pre-aggregated sales figures for one product on one day, mapped to the
+ * "daily_sales_rollup" table. Rows are maintained incrementally by the
+ * SalesRollupService so that reporting never has to scan the orders table.
+ * 
+ * Amounts are summed as exact paise, like Order.amountPaise; they are only
+ * converted to rupees for the JSON "amountSum".
+ */
+@Entity
+@Table(name = "daily_sales_rollup")
+@IdClass(DailySalesRollup.Key.class)
+public class DailySalesRollup {
+    /**
+     * The calendar day the orders were placed on
+     */
+    @Id
+    private LocalDate salesDay;
+
+    /**
+     * The product the figures are for
+     */
+    @Id
+    private String productId;
+
+    /**
+     * Number of orders placed
+     */
+    private long orderCount;
+
+    /**
+     * Total number of units ordered
+     */
+    private long quantitySum;
+
+    /**
+     * Total monetary value of the orders in paise (minor units)
+     */
+    @ColumnDefault("0")
+    private long amountSumPaise;
+
+    /**
+     * Composite primary key of a rollup row
+     */
+    public static class Key implements Serializable {
+        private LocalDate salesDay;
+        private String productId;
+
+        public Key() {
+        }
+
+        public Key(LocalDate salesDay, String productId) {
+            this.salesDay = salesDay;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(salesDay, other.salesDay) && Objects.equals(productId, other.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(salesDay, productId);
+        }
+    }
+
+    /**
+     * Default constructor required by JPA
+     */
+    protected DailySalesRollup() {
+    }
+
+    /**
+     * Create a rollup row, used when merging the rows of several shards
+     *
+     * @param salesDay The sales day
+     * @param productId The product ID
+     * @param orderCount The order count
+     * @param quantitySum The quantity sum
+     * @param amountSumPaise The amount sum in paise
+     */
+    public DailySalesRollup(LocalDate salesDay, String productId, long orderCount, long quantitySum,
+                            long amountSumPaise) {
+        this.salesDay = salesDay;
+        this.productId = productId;
+        this.orderCount = orderCount;
+        this.quantitySum = quantitySum;
+        this.amountSumPaise = amountSumPaise;
+    }
+
+    // Getters
+
+    /**
+     * Get the day these figures are for
+     * @return The sales day
+     */
+    public LocalDate getSalesDay() {
+        return salesDay;
+    }
+
+    /**
+     * Get the product these figures are for
+     * @return The product ID
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Get the number of orders placed
+     * @return The order count
+     */
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Get the total number of units ordered
+     * @return The quantity sum
+     */
+    public long getQuantitySum() {
+        return quantitySum;
+    }
+
+    /**
+     * Get the total monetary value of the orders in rupees
+     * Derived from the amount in paise; this is the "amountSum" of the JSON format
+     * @return The amount sum
+     */
+    public double getAmountSum() {
+        return amountSumPaise / 100.0;
+    }
+
+    /**
+     * Get the total monetary value of the orders in paise
+     * @return The amount sum in minor units
+     */
+    @JsonIgnore
+    public long getAmountSumPaise() {
+        return amountSumPaise;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.orderapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Inventory Item Entity
+ * 
+ * The stock level of a single product, mapped to the "inventory" table.
+ * Products without a row here have no known stock and cannot be ordered.
+ * 
+ * On the order path stock is reserved in memory by the InventoryService; this
+ * table is the durable copy, updated asynchronously in batches.
+ */
+@Entity
+@Table(name = "inventory")
+public class InventoryItem {
+    /**
+     * The product identifier, as referenced by Order.productId
+     */
+    @Id
+    private String productId;
+
+    /**
+     * Number of units that are still available for ordering
+     */
+    private long available;
+
+    // Getters & Setters
+
+    /**
+     * Get the product identifier
+     * @return The product ID
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Set the product identifier
+     * @param productId The product ID
+     */
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    /**
+     * Get the number of units available
+     * @return The available stock
+     */
+    public long getAvailable() {
+        return available;
+    }
+
+    /**
+     * Set the number of units available
+     * @param available The available stock
+     */
+    public void setAvailable(long available) {
+        this.available = available;
+    }
+}
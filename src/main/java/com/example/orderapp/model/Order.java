@@ -1,6 +1,11 @@
 package com.example.orderapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.Instant;
 
 /**
@@ -18,9 +23,28 @@ import java.time.Instant;
  * - Timestamp information
  * 
  * This entity is used throughout the application for CRUD operations on order data.
+ * 
+ * Indexes back the filtered history search. Every query is scoped by userId, so
+ * each index leads with it, followed by the column that filter combination
+ * narrows or sorts on:
+ * - (userId, orderTime): plain history and date range filters, sorted by time
+ * - (userId, productId, orderTime): product filters, optionally with a date range
+ * - (userId, amountPaise): amount range filters and amount sorting
+ * The page count query for these combinations can be answered from the index alone.
+ * 
+ * Orders are never modified once placed, so they are kept in the read-only
+ * "orders" region of the second-level cache (see ehcache.xml) and single-order
+ * lookups by ID usually skip the database. Order IDs are unique across shards,
+ * so one region serves all of them.
  */
 @Entity
-@Table(name = "orders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_time", columnList = "userId, orderTime"),
+        @Index(name = "idx_orders_user_product_time", columnList = "userId, productId, orderTime"),
+        @Index(name = "idx_orders_user_amount_paise", columnList = "userId, amountPaise")
+})
 public class Order {
     /**
      * Unique identifier for the order
@@ -48,10 +72,12 @@ public class Order {
     private int quantity;
     
     /**
-     * The total monetary value of the order
-     * Typically calculated as price per unit × quantity
+     * The total monetary value of the order in paise (minor units)
+     * Calculated as price per unit × quantity; stored as an exact integer
+     * rather than a floating point amount
      */
-    private double amount;
+    @ColumnDefault("0")
+    private long amountPaise;
     
     /**
      * The timestamp when the order was placed
@@ -59,6 +85,16 @@ public class Order {
      */
     private Instant orderTime;
 
+    /**
+     * When the row was inserted, assigned by the database from its own clock
+     * (the start of the inserting transaction). Unlike orderTime it cannot be
+     * backdated by imports, so the SalesRollupService uses it to decide which
+     * orders have settled. Not written or read by the application.
+     */
+    @Column(insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private Instant createdAt;
+
     // Getters & Setters
     
     /**
@@ -126,19 +162,39 @@ public class Order {
     }
 
     /**
-     * Get the total monetary amount of the order
+     * Get the total monetary amount of the order in rupees
+     * Derived from the amount in paise; this is the "amount" of the standard JSON format
      * @return The order amount
      */
     public double getAmount() {
-        return amount;
+        return amountPaise / 100.0;
     }
 
     /**
-     * Set the total monetary amount of the order
-     * @param amount The order amount
+     * Set the total monetary amount of the order in rupees
+     * @param amount The order amount, rounded to the nearest paisa
      */
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountPaise = Math.round(amount * 100);
+    }
+
+    /**
+     * Get the total monetary amount of the order in paise
+     * Only part of the compact JSON format (see OrderCompactSerializer)
+     * @return The order amount in minor units
+     */
+    @JsonIgnore
+    public long getAmountPaise() {
+        return amountPaise;
+    }
+
+    /**
+     * Set the total monetary amount of the order in paise
+     * @param amountPaise The order amount in minor units
+     */
+    @JsonIgnore
+    public void setAmountPaise(long amountPaise) {
+        this.amountPaise = amountPaise;
     }
 
     /**
@@ -0,0 +1,85 @@
+package com.example.orderapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Product Entity
+ * 
+ * This class represents a product that can be ordered, together with its
+ * current unit price. It is mapped to the "products" table in the database.
+ * 
+ * Products are not read on the order path directly: the ProductCatalog keeps
+ * an in-memory snapshot of this table that is used to price orders.
+ */
+@Entity
+@Table(name = "products")
+public class Product {
+    /**
+     * The product identifier, as referenced by Order.productId
+     */
+    @Id
+    private String productId;
+
+    /**
+     * Human-readable product name
+     */
+    private String name;
+
+    /**
+     * The price of a single unit of the product, in paise; stored as an exact
+     * integer rather than a floating point amount
+     */
+    @ColumnDefault("0")
+    private long pricePaise;
+
+    // Getters & Setters
+
+    /**
+     * Get the product identifier
+     * @return The product ID
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Set the product identifier
+     * @param productId The product ID
+     */
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    /**
+     * Get the product name
+     * @return The product name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the product name
+     * @param name The product name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the unit price of the product
+     * @return The unit price in paise
+     */
+    public long getPricePaise() {
+        return pricePaise;
+    }
+
+    /**
+     * Set the unit price of the product
+     * @param pricePaise The unit price in paise
+     */
+    public void setPricePaise(long pricePaise) {
+        this.pricePaise = pricePaise;
+    }
+}
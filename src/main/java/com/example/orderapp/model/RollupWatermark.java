@@ -0,0 +1,41 @@
+package com.example.orderapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Rollup Watermark Entity
+ * 
+ * Records how far an incremental rollup has progressed through the orders
+ * table, as the highest Order.id already folded into it. Mapped to the
+ * "rollup_watermark" table, one row per rollup.
+ */
+@Entity
+@Table(name = "rollup_watermark")
+public class RollupWatermark {
+    /**
+     * Name of the rollup this watermark belongs to
+     */
+    @Id
+    private String name;
+
+    /**
+     * Highest order ID included in the rollup
+     */
+    private long lastOrderId;
+
+    /**
+     * Get the rollup name
+     * @return The rollup name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the highest order ID included in the rollup
+     * @return The last processed order ID
+     */
+    public long getLastOrderId() {
+        return lastOrderId;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.orderapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Access Log
+ *
+ * Writes one structured key=value line per sampled request to the "access"
+ * logger, which logback-spring.xml routes through a non-blocking async
+ * appender so the request thread never waits on log I/O.
+ *
+ * A fraction of requests is sampled (app.access-log.sample-rate); slow requests
+ * and server errors are always logged. Lines are built in the thread's reusable
+ * RequestTimings buffer.
+ */
+@Component
+public class AccessLog {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private final double sampleRate;
+
+    private final long slowThresholdNanos;
+
+    public AccessLog(@Value("${app.access-log.sample-rate:0.01}") double sampleRate,
+                     @Value("${app.access-log.slow-threshold-ms:500}") long slowThresholdMillis) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    /**
+     * Log a finished request if it is sampled, slow or failed
+     *
+     * @param request The request
+     * @param status The response status code
+     * @param timings The request's phase timings
+     * @param totalNanos Total time spent on the request
+     */
+    void log(HttpServletRequest request, int status, RequestTimings timings, long totalNanos) {
+        boolean sampled = status >= 500
+                || totalNanos >= slowThresholdNanos
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled || !accessLogger.isInfoEnabled()) {
+            return;
+        }
+
+        StringBuilder sb = timings.buffer();
+        sb.append("method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" total_ms=");
+        RequestTimings.appendMillis(sb, totalNanos);
+        for (RequestTimings.Phase phase : RequestTimings.PHASES) {
+            long nanos = timings.duration(phase);
+            if (nanos > 0) {
+                sb.append(' ').append(phase.metricName()).append("_ms=");
+                RequestTimings.appendMillis(sb, nanos);
+            }
+        }
+        sb.append(" db_statements=").append(timings.dbStatements());
+        accessLogger.info(sb.toString());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.orderapp.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * JDBC Timing Listener
+ *
+ * Hibernate session listener that attributes connection acquisition and
+ * statement execution time to the current request's RequestTimings.
+ * Hibernate creates one instance per session (see MonitoringConfig), so the
+ * start timestamps need no synchronization.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long acquisitionStart;
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings.record(RequestTimings.Phase.DB_POOL, acquisitionStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.record(RequestTimings.Phase.DB, executeStart);
+        RequestTimings.countStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.record(RequestTimings.Phase.DB, batchStart);
+        RequestTimings.countStatement();
+    }
+}
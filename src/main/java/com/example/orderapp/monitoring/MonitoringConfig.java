@@ -0,0 +1,40 @@
+package com.example.orderapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Monitoring Configuration
+ *
+ * Wires the request phase timing into Spring MVC and Hibernate:
+ * - an interceptor that starts the controller phase when a handler is dispatched
+ *   (it ends when the response body starts, see ServerTimingFilter)
+ * - the JdbcTimingListener as an automatic listener on every Hibernate session
+ */
+@Configuration
+public class MonitoringConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimings.start(RequestTimings.Phase.CONTROLLER);
+                return true;
+            }
+        });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcTimingCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                JdbcTimingListener.class.getName());
+    }
+}
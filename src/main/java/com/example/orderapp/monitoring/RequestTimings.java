@@ -0,0 +1,178 @@
+package com.example.orderapp.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Request Timings
+ *
+ * Per-request latency breakdown by phase, collected on the request thread and
+ * reported in the Server-Timing response header and the access log.
+ *
+ * One instance is kept per thread and reset at the start of every request, so
+ * recording a phase costs two System.nanoTime() calls and no allocation.
+ * Outside of a request (background jobs, warm-up) recording is a no-op.
+ *
+ * Phases may nest: the controller phase includes the service phase, which in
+ * turn includes the database phase.
+ */
+public final class RequestTimings {
+
+    /**
+     * The phases a request is broken down into
+     */
+    public enum Phase {
+        /** Firebase ID token verification */
+        AUTH("auth"),
+        /** Controller handling, from dispatch to the start of the response body */
+        CONTROLLER("controller"),
+        /** Business logic in OrderService */
+        SERVICE("service"),
+        /** Waiting for a pooled JDBC connection */
+        DB_POOL("db-pool"),
+        /** JDBC statement and batch execution */
+        DB("db"),
+        /** Serializing and writing the response body */
+        WRITE("write");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<RequestTimings> CURRENT = ThreadLocal.withInitial(RequestTimings::new);
+
+    private final long[] durations = new long[PHASES.length];
+    private final long[] starts = new long[PHASES.length];
+    private final StringBuilder buffer = new StringBuilder(256);
+    private int dbStatements;
+    private boolean active;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Start collecting timings for a request on the current thread
+     * @return The reset timings of this thread
+     */
+    static RequestTimings begin() {
+        RequestTimings timings = CURRENT.get();
+        Arrays.fill(timings.durations, 0);
+        Arrays.fill(timings.starts, 0);
+        timings.dbStatements = 0;
+        timings.active = true;
+        return timings;
+    }
+
+    /**
+     * Stop collecting timings on the current thread
+     */
+    static void end() {
+        CURRENT.get().active = false;
+    }
+
+    /**
+     * Add the time elapsed since the given start to a phase of the current request
+     *
+     * @param phase The phase to attribute the time to
+     * @param startNanos A System.nanoTime() value taken when the work began
+     */
+    public static void record(Phase phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings.active) {
+            timings.durations[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Mark the start of a phase whose end is observed elsewhere, see stop
+     *
+     * @param phase The phase that starts now
+     */
+    public static void start(Phase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings.active) {
+            timings.starts[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Mark the end of a phase started with start; does nothing if it was not started
+     *
+     * @param phase The phase that ends now
+     */
+    public static void stop(Phase phase) {
+        RequestTimings timings = CURRENT.get();
+        int i = phase.ordinal();
+        if (timings.active && timings.starts[i] != 0) {
+            timings.durations[i] += System.nanoTime() - timings.starts[i];
+            timings.starts[i] = 0;
+        }
+    }
+
+    /**
+     * Count one executed JDBC statement or batch for the current request
+     */
+    static void countStatement() {
+        RequestTimings timings = CURRENT.get();
+        if (timings.active) {
+            timings.dbStatements++;
+        }
+    }
+
+    long duration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    int dbStatements() {
+        return dbStatements;
+    }
+
+    /**
+     * Render the Server-Timing header value, omitting phases that did not occur
+     *
+     * @param totalNanos Time spent on the request so far
+     * @return The header value
+     */
+    String serverTimingHeader(long totalNanos) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+        for (Phase phase : PHASES) {
+            long nanos = durations[phase.ordinal()];
+            if (nanos > 0) {
+                sb.append(phase.metricName()).append(";dur=");
+                appendMillis(sb, nanos);
+                if (phase == Phase.DB) {
+                    sb.append(";desc=\"").append(dbStatements).append(" statements\"");
+                }
+                sb.append(", ");
+            }
+        }
+        sb.append("total;dur=");
+        appendMillis(sb, totalNanos);
+        return sb.toString();
+    }
+
+    /**
+     * Reusable per-thread buffer for building log lines
+     */
+    StringBuilder buffer() {
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Append a nanosecond duration as milliseconds with one decimal, without formatting
+     */
+    static void appendMillis(StringBuilder sb, long nanos) {
+        long tenths = nanos / 100_000;
+        sb.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
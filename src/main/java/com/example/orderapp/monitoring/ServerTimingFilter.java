@@ -0,0 +1,184 @@
+package com.example.orderapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Server-Timing Filter
+ *
+ * Outermost filter that collects the RequestTimings of every request, adds
+ * them to the response as a Server-Timing header and hands them to the
+ * AccessLog once the request has completed.
+ *
+ * Headers can only be set until the response is committed, so the header is
+ * added just before the first byte of the body is written. Jackson buffers
+ * its output internally, so for typical responses serialization has finished
+ * by then and is included as the "write" phase; the access log always has the
+ * complete write time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final AccessLog accessLog;
+
+    public ServerTimingFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse timingResponse = new TimingResponse(response, timings, start);
+        try {
+            chain.doFilter(request, timingResponse);
+        } finally {
+            RequestTimings.stop(RequestTimings.Phase.CONTROLLER);
+            RequestTimings.stop(RequestTimings.Phase.WRITE);
+            timingResponse.writeHeader();
+            accessLog.log(request, response.getStatus(), timings, System.nanoTime() - start);
+            RequestTimings.end();
+        }
+    }
+
+    /**
+     * Response wrapper that notices when the body starts and sets the header just before commit
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+        private final RequestTimings timings;
+        private final long start;
+        private boolean bodyStarted;
+        private boolean headerWritten;
+        private ServletOutputStream outputStream;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings, long start) {
+            super(response);
+            this.timings = timings;
+            this.start = start;
+        }
+
+        private void beginBody() {
+            if (!bodyStarted) {
+                bodyStarted = true;
+                RequestTimings.stop(RequestTimings.Phase.CONTROLLER);
+                RequestTimings.start(RequestTimings.Phase.WRITE);
+            }
+        }
+
+        void writeHeader() {
+            if (headerWritten || isCommitted()) {
+                return;
+            }
+            headerWritten = true;
+            if (bodyStarted) {
+                // Fold the serialization time so far into the write phase
+                RequestTimings.stop(RequestTimings.Phase.WRITE);
+                RequestTimings.start(RequestTimings.Phase.WRITE);
+            }
+            setHeader(HEADER, timings.serverTimingHeader(System.nanoTime() - start));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beginBody();
+            if (outputStream == null) {
+                outputStream = new TimingOutputStream(super.getOutputStream(), this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beginBody();
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+
+    /**
+     * Output stream that sets the Server-Timing header before the first write or flush
+     */
+    private static final class TimingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final TimingResponse response;
+
+        TimingOutputStream(ServletOutputStream delegate, TimingResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            response.writeHeader();
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            response.writeHeader();
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.writeHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.writeHeader();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
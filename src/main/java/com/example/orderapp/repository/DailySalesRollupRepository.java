@@ -0,0 +1,61 @@
+package com.example.orderapp.repository;
+
+import com.example.orderapp.model.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily Sales Rollup Repository Interface
+ * 
+ * Read access to the pre-aggregated sales figures. Reporting endpoints use
+ * only these queries and never aggregate over the orders table directly.
+ * Rows are written by the SalesRollupService with native SQL.
+ */
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, DailySalesRollup.Key> {
+
+    /**
+     * Per-day totals across all products, with the amount in paise
+     */
+    interface DailyTotals {
+        LocalDate getSalesDay();
+        long getOrderCount();
+        long getQuantitySum();
+        long getAmountSumPaise();
+    }
+
+    /**
+     * Find the per-product figures for a range of days
+     * 
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return Rollup rows ordered by day and product
+     */
+    List<DailySalesRollup> findBySalesDayBetweenOrderBySalesDayAscProductIdAsc(LocalDate from, LocalDate to);
+
+    /**
+     * Find the figures of a single product for a range of days
+     * 
+     * @param productId The product identifier
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return Rollup rows ordered by day
+     */
+    List<DailySalesRollup> findByProductIdAndSalesDayBetweenOrderBySalesDayAsc(String productId, LocalDate from, LocalDate to);
+
+    /**
+     * Sum the figures of all products per day for a range of days
+     * 
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return One row per day that had orders, ordered by day
+     */
+    @Query("select r.salesDay as salesDay, sum(r.orderCount) as orderCount, "
+            + "sum(r.quantitySum) as quantitySum, sum(r.amountSumPaise) as amountSumPaise "
+            + "from DailySalesRollup r where r.salesDay between :from and :to "
+            + "group by r.salesDay order by r.salesDay")
+    List<DailyTotals> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
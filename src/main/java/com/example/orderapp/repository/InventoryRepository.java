@@ -0,0 +1,13 @@
+package com.example.orderapp.repository;
+
+import com.example.orderapp.model.InventoryItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Inventory Repository Interface
+ * 
+ * Data access for the InventoryItem entity. Used by the InventoryService to
+ * load and reconcile its in-memory stock levels.
+ */
+public interface InventoryRepository extends JpaRepository<InventoryItem, String> {
+}
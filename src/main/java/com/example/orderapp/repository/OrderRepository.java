@@ -2,6 +2,7 @@ package com.example.orderapp.repository;
 
 import com.example.orderapp.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import java.util.List;
 
 /**
@@ -22,10 +23,14 @@ import java.util.List;
  * - delete(): Remove an entity
  * - exists(): Check if entity exists
  * 
+ * It also extends JpaSpecificationExecutor so that filtered queries can be
+ * assembled at runtime from the predicates in OrderSpecifications and
+ * executed with database-side pagination via findAll(Specification, Pageable).
+ * 
  * @param <Order> The entity type this repository manages
  * @param <Long> The type of the entity's primary key
  */
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
     
     /**
      * Find all orders belonging to a specific user
@@ -0,0 +1,116 @@
+package com.example.orderapp.repository;
+
+import com.example.orderapp.model.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Order Specifications
+ *
+ * Reusable JPA Criteria predicates for building filtered order queries.
+ * Each factory method returns null when its filter value is absent, which
+ * Spring Data treats as "no restriction", so callers can chain every
+ * filter unconditionally and only the supplied ones reach the SQL.
+ *
+ * The predicates line up with the indexes declared on the Order entity:
+ * every query starts with the userId equality, followed by either the
+ * productId equality or a range on orderTime / amountPaise.
+ *
+ * Amount bounds are given in rupees and converted to whole paise, rounding
+ * inward so that the bounds keep their meaning for fractional paise.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    /**
+     * Restrict to orders placed by a specific user
+     *
+     * @param userId The Firebase user ID
+     * @return A predicate on userId
+     */
+    public static Specification<Order> belongsTo(String userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    /**
+     * Restrict to orders for a specific product
+     *
+     * @param productId The product identifier, or null for any product
+     * @return A predicate on productId, or null if no product was given
+     */
+    public static Specification<Order> forProduct(String productId) {
+        if (productId == null || productId.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("productId"), productId);
+    }
+
+    /**
+     * Restrict to orders placed at or after the given instant
+     *
+     * @param from Inclusive lower bound, or null for no lower bound
+     * @return A predicate on orderTime, or null if no bound was given
+     */
+    public static Specification<Order> placedFrom(Instant from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("orderTime"), from);
+    }
+
+    /**
+     * Restrict to orders placed strictly before the given instant
+     *
+     * @param to Exclusive upper bound, or null for no upper bound
+     * @return A predicate on orderTime, or null if no bound was given
+     */
+    public static Specification<Order> placedBefore(Instant to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("orderTime"), to);
+    }
+
+    /**
+     * Restrict to orders with an amount of at least the given value
+     *
+     * @param minAmount Inclusive lower bound in rupees, or null for no lower bound
+     * @return A predicate on amountPaise, or null if no bound was given
+     */
+    public static Specification<Order> amountAtLeast(Double minAmount) {
+        if (minAmount == null) {
+            return null;
+        }
+        long minPaise = toPaise(minAmount, RoundingMode.CEILING);
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amountPaise"), minPaise);
+    }
+
+    /**
+     * Restrict to orders with an amount of at most the given value
+     *
+     * @param maxAmount Inclusive upper bound in rupees, or null for no upper bound
+     * @return A predicate on amountPaise, or null if no bound was given
+     */
+    public static Specification<Order> amountAtMost(Double maxAmount) {
+        if (maxAmount == null) {
+            return null;
+        }
+        long maxPaise = toPaise(maxAmount, RoundingMode.FLOOR);
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amountPaise"), maxPaise);
+    }
+
+    /**
+     * Convert an amount in rupees to paise; BigDecimal.valueOf keeps 0.29 from becoming 28.999... paise
+     */
+    private static long toPaise(double amount, RoundingMode rounding) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Amount bounds must be finite numbers");
+        }
+        return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, rounding).longValue();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.orderapp.repository;
+
+import com.example.orderapp.model.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Product Repository Interface
+ * 
+ * Data access for the Product entity. Only the ProductCatalog reads from it,
+ * when it rebuilds its in-memory snapshot.
+ */
+public interface ProductRepository extends JpaRepository<Product, String> {
+}
@@ -0,0 +1,133 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.Product;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog Snapshot
+ *
+ * An immutable, point-in-time copy of the product prices, laid out for fast
+ * lookups without boxing: product IDs live in an open-addressing hash table
+ * and the matching unit prices, in paise, in a parallel long array.
+ *
+ * Snapshots are never modified after construction. The ProductCatalog builds
+ * a new one on every refresh and swaps the reference, so readers always see
+ * a consistent catalog without any locking.
+ */
+public final class CatalogSnapshot {
+    /**
+     * Returned by priceOf when the product is not in the catalog
+     */
+    public static final long UNKNOWN = -1;
+
+    private final String[] keys;
+    private final long[] prices;
+    private final int mask;
+    private final int size;
+    private final long version;
+    private final Instant loadedAt;
+
+    private CatalogSnapshot(String[] keys, long[] prices, int size, long version, Instant loadedAt) {
+        this.keys = keys;
+        this.prices = prices;
+        this.mask = keys.length - 1;
+        this.size = size;
+        this.version = version;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * An empty snapshot used until the first load completes
+     * @return A snapshot with no products and version 0
+     */
+    static CatalogSnapshot empty() {
+        return new CatalogSnapshot(new String[1], new long[1], 0, 0, null);
+    }
+
+    /**
+     * Build a snapshot from the given products
+     *
+     * @param products The products to include
+     * @param version The version number of the new snapshot
+     * @return The new snapshot
+     */
+    static CatalogSnapshot of(List<Product> products, long version) {
+        // Keep the table at most half full so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(2, products.size() * 2 - 1)) << 1;
+        String[] keys = new String[capacity];
+        long[] prices = new long[capacity];
+        int mask = capacity - 1;
+        int size = 0;
+        for (Product product : products) {
+            String key = product.getProductId();
+            int slot = mix(key.hashCode()) & mask;
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                size++;
+            }
+            keys[slot] = key;
+            prices[slot] = product.getPricePaise();
+        }
+        return new CatalogSnapshot(keys, prices, size, version, Instant.now());
+    }
+
+    /**
+     * Look up the unit price of a product
+     *
+     * @param productId The product identifier
+     * @return The unit price in paise, or UNKNOWN if the product is not in the catalog
+     */
+    public long priceOf(String productId) {
+        if (productId == null) {
+            return UNKNOWN;
+        }
+        int slot = mix(productId.hashCode()) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(productId)) {
+                return prices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * List the products in this snapshot, in no particular order
+     * @return The product identifiers
+     */
+    public List<String> productIds() {
+        List<String> ids = new ArrayList<>(size);
+        for (String key : keys) {
+            if (key != null) {
+                ids.add(key);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Spread the bits of String.hashCode so that similar IDs do not cluster
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
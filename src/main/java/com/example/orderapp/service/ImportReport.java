@@ -0,0 +1,124 @@
+package com.example.orderapp.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Import Report
+ *
+ * Live progress and final outcome of a bulk order import. The counters are
+ * updated by the importing thread and may be read concurrently by the status
+ * endpoint while the import is still running.
+ */
+public class ImportReport {
+    /**
+     * Maximum number of error messages kept, so a badly broken file cannot exhaust memory
+     */
+    private static final int MAX_ERRORS = 100;
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final String format;
+    private final Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong chunksCommitted = new AtomicLong();
+    private final AtomicLong chunksFailed = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    public ImportReport(String format) {
+        this.format = format;
+    }
+
+    void lineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    void rowRejected(long line, String reason) {
+        rowsRejected.incrementAndGet();
+        addError("line " + line + ": " + reason);
+    }
+
+    void chunkCommitted(int rows) {
+        chunksCommitted.incrementAndGet();
+        rowsImported.addAndGet(rows);
+    }
+
+    void chunkFailed(long firstLine, long lastLine, int rows, String reason) {
+        chunksFailed.incrementAndGet();
+        rowsRejected.addAndGet(rows);
+        addError("lines " + firstLine + "-" + lastLine + ": " + reason);
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    private void addError(String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    public long getLinesRead() {
+        return linesRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public long getChunksCommitted() {
+        return chunksCommitted.get();
+    }
+
+    public long getChunksFailed() {
+        return chunksFailed.get();
+    }
+
+    /**
+     * Import throughput so far, in rows per second
+     * @return Imported rows divided by elapsed wall-clock time
+     */
+    public double getRowsPerSecond() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, end.toEpochMilli() - startedAt.toEpochMilli());
+        return rowsImported.get() * 1000.0 / millis;
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+}
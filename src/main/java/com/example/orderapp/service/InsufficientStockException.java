@@ -0,0 +1,11 @@
+package com.example.orderapp.service;
+
+/**
+ * Thrown when an order asks for more units of a product than are available.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String productId) {
+        super("Insufficient stock for product: " + productId);
+    }
+}
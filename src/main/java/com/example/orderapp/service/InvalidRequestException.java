@@ -0,0 +1,13 @@
+package com.example.orderapp.service;
+
+/**
+ * Thrown when client input fails validation, such as an unknown product or
+ * an invalid filter, paging or date range parameter. The message is returned
+ * to the client, so it must only describe the input.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.InventoryItem;
+import com.example.orderapp.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inventory Service
+ *
+ * Enforces stock limits on the order path without touching the database.
+ * Reservations are taken from the in-memory StockLedger; the resulting stock
+ * changes are written behind to the inventory table in periodic batches, one
+ * aggregated UPDATE per product, and a periodic reconciliation pass realigns
+ * the ledger with the durable levels (for example after a manual restock).
+ *
+ * Flushing and reconciliation share a lock so that reconciliation always sees
+ * the database and the ledger's pending deltas in step.
+ *
+ * Stock control fails closed: the ledger is loaded before the application
+ * starts serving, and a product without an inventory row cannot be ordered.
+ *
+ * Limitations:
+ * - The ledger is per instance. Every instance reconciles to the full durable
+ *   level and reserves against it independently, so running more than one
+ *   instance can oversell by up to the stock reserved on the other instances
+ *   between reconciliations. Run a single instance, or partition products
+ *   between instances, while stock limits matter.
+ * - Reservations not yet flushed exist only in memory. If the process dies
+ *   before the next flush they are lost, and the inventory table overstates
+ *   the stock by those units until it is corrected by a stock count.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final String FLUSH_SQL = "UPDATE inventory SET available = available - ? WHERE productId = ?";
+
+    private final StockLedger ledger = new StockLedger();
+
+    private final InventoryRepository inventoryRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object syncLock = new Object();
+
+    public InventoryService(InventoryRepository inventoryRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate) {
+        this.inventoryRepository = inventoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * A stock reservation that can be released at most once
+     */
+    public static final class Reservation {
+        private final String productId;
+        private final int quantity;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(String productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Reserve stock for an order
+     *
+     * If called inside a transaction, the reservation is released automatically
+     * when that transaction rolls back.
+     *
+     * @param productId The product identifier
+     * @param quantity Number of units to reserve
+     * @return The reservation
+     * @throws InsufficientStockException if not enough units are available, or the
+     *         product has no inventory row
+     */
+    public Reservation reserve(String productId, int quantity) {
+        StockLedger.Outcome outcome = ledger.tryReserve(productId, quantity);
+        if (outcome != StockLedger.Outcome.RESERVED) {
+            // An untracked product has no known stock, so it is treated as sold out
+            throw new InsufficientStockException(productId);
+        }
+
+        Reservation reservation = new Reservation(productId, quantity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(reservation);
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    /**
+     * Give back the units of a reservation whose order was not placed
+     *
+     * @param reservation The reservation, may be null
+     */
+    public void release(Reservation reservation) {
+        if (reservation != null && reservation.released.compareAndSet(false, true)) {
+            ledger.release(reservation.productId, reservation.quantity);
+        }
+    }
+
+    /**
+     * Get the units currently available for a product
+     *
+     * @param productId The product identifier
+     * @return Available units, or -1 if the product has no inventory row
+     */
+    public int available(String productId) {
+        return ledger.available(productId);
+    }
+
+    /**
+     * Write the stock changes accumulated since the last flush to the database
+     *
+     * All products are updated in one JDBC batch inside a single transaction;
+     * if it fails, the deltas are put back and retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:500}")
+    public void flush() {
+        synchronized (syncLock) {
+            Map<String, Long> deltas = ledger.drainPending();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            List<Object[]> batch = new ArrayList<>(deltas.size());
+            deltas.forEach((productId, delta) -> batch.add(new Object[] {delta, productId}));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            } catch (Exception e) {
+                ledger.restorePending(deltas);
+                logger.error("Failed to flush stock changes for {} products, will retry", deltas.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Load the stock levels before the application starts serving requests
+     */
+    @PostConstruct
+    void loadLedger() {
+        reconcile();
+    }
+
+    /**
+     * Realign the in-memory stock levels with the inventory table
+     *
+     * Also picks up products that were added to the table since the last run.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval-ms:60000}",
+               initialDelayString = "${app.inventory.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        synchronized (syncLock) {
+            try {
+                for (InventoryItem item : inventoryRepository.findAll()) {
+                    ledger.reconcile(item.getProductId(), item.getAvailable());
+                }
+            } catch (Exception e) {
+                logger.error("Failed to reconcile inventory", e);
+            }
+        }
+    }
+
+    /**
+     * Flush outstanding stock changes before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.sharding.ShardRouter;
+import com.example.orderapp.sharding.ShardSchemaInitializer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+
+/**
+ * Order Amount Migration
+ *
+ * Orders used to store their amount as a floating point number of rupees in
+ * the "amount" column; they now store exact paise in "amountPaise", which
+ * Hibernate adds with a default of 0. On startup, before any scheduled job
+ * runs, this component migrates every shard that still has the old column:
+ * 1. Make "amount" nullable, since new orders no longer write it
+ * 2. Backfill amountPaise = round(amount * 100) for rows that have no paise
+ *    yet, in batches of app.orders.migration.batch-size orders by id, one
+ *    transaction each
+ * 3. If app.orders.drop-legacy-amount is set, drop the old index and column
+ *
+ * The daily_sales_rollup table likewise moves from "amountSum" in rupees to
+ * "amountSumPaise". It holds one row per day and product, so its backfill
+ * runs as a single statement, and its old column is dropped with the orders'.
+ * The products table moves from "price" in rupees to "pricePaise" the same
+ * way; the ProductCatalog reads it only after this migration has run.
+ *
+ * Every step is idempotent and re-runs on each startup until the column is
+ * gone. Instances of the previous release cannot read orders without an
+ * "amount", so this release is meant to replace them all at once rather than
+ * in a rolling deploy; dropping the column can wait for a later restart.
+ */
+@Component
+public class OrderAmountMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderAmountMigration.class);
+
+    private static final String BACKFILL_SQL =
+            "UPDATE orders SET amountPaise = round(amount * 100) "
+            + "WHERE id > ? AND id <= ? AND amountPaise = 0 AND amount IS NOT NULL AND amount <> 0";
+
+    private static final String BACKFILL_ROLLUP_SQL =
+            "UPDATE daily_sales_rollup SET amountSumPaise = round(amountSum * 100) "
+            + "WHERE amountSumPaise = 0 AND amountSum IS NOT NULL AND amountSum <> 0";
+
+    private static final String BACKFILL_PRODUCTS_SQL =
+            "UPDATE products SET pricePaise = round(price * 100) "
+            + "WHERE pricePaise = 0 AND price IS NOT NULL AND price <> 0";
+
+    private static final String NEXT_BATCH_END_SQL =
+            "SELECT max(id) FROM (SELECT id FROM orders WHERE id > ? ORDER BY id LIMIT ?) batch";
+
+    private final ShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean dropLegacyColumn;
+    private final int batchSize;
+
+    /**
+     * The ShardSchemaInitializer is injected only so that every shard has the
+     * amountPaise, amountSumPaise and pricePaise columns before the migration runs
+     */
+    public OrderAmountMigration(ShardRouter router,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ShardSchemaInitializer shardSchemaInitializer,
+                                @Value("${app.orders.drop-legacy-amount:false}") boolean dropLegacyColumn,
+                                @Value("${app.orders.migration.batch-size:50000}") int batchSize) {
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dropLegacyColumn = dropLegacyColumn;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            router.onShard(target, () -> {
+                migrateShard(target);
+                migrateRollup(target);
+                migrateProducts(target);
+                return null;
+            });
+        }
+    }
+
+    private void migrateShard(int shard) {
+        if (!hasLegacyColumn("orders", "amount")) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE orders ALTER COLUMN amount DROP NOT NULL");
+        long updated = 0;
+        long from = Long.MIN_VALUE;
+        Long to;
+        while ((to = jdbcTemplate.queryForObject(NEXT_BATCH_END_SQL, Long.class, from, batchSize)) != null) {
+            long lower = from;
+            long upper = to;
+            Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update(BACKFILL_SQL, lower, upper));
+            updated += rows != null ? rows : 0;
+            from = to;
+        }
+        logger.info("Backfilled amountPaise of {} orders on shard {}", updated, shard);
+
+        if (dropLegacyColumn) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_orders_user_amount");
+                jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN amount");
+            });
+            logger.info("Dropped the legacy amount column on shard {}", shard);
+        }
+    }
+
+    private void migrateRollup(int shard) {
+        if (!hasLegacyColumn("daily_sales_rollup", "amountsum")) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE daily_sales_rollup ALTER COLUMN amountSum DROP NOT NULL");
+            int rows = jdbcTemplate.update(BACKFILL_ROLLUP_SQL);
+            logger.info("Backfilled amountSumPaise of {} daily sales rollup rows on shard {}", rows, shard);
+        });
+
+        if (dropLegacyColumn) {
+            jdbcTemplate.execute("ALTER TABLE daily_sales_rollup DROP COLUMN amountSum");
+            logger.info("Dropped the legacy amountSum column on shard {}", shard);
+        }
+    }
+
+    private void migrateProducts(int shard) {
+        if (!hasLegacyColumn("products", "price")) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN price DROP NOT NULL");
+            int rows = jdbcTemplate.update(BACKFILL_PRODUCTS_SQL);
+            logger.info("Backfilled pricePaise of {} products on shard {}", rows, shard);
+        });
+
+        if (dropLegacyColumn) {
+            jdbcTemplate.execute("ALTER TABLE products DROP COLUMN price");
+            logger.info("Dropped the legacy price column on shard {}", shard);
+        }
+    }
+
+    /**
+     * Check for a column by its name as stored in the catalog: unquoted
+     * identifiers are folded to lower case
+     */
+    private boolean hasLegacyColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+                return columns.next();
+            }
+        }));
+    }
+}
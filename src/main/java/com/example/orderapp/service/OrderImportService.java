@@ -0,0 +1,308 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.sharding.ShardContext;
+import com.example.orderapp.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Order Import Service
+ *
+ * Bulk loads historical orders through the PostgreSQL COPY FROM STDIN protocol,
+ * which is orders of magnitude faster than persisting one entity at a time
+ * through JPA.
+ *
+ * The input is read line by line and never materialized as a whole: each line
+ * is validated, re-encoded as a canonical CSV row into the chunk buffer of the
+ * shard that owns its user, and every full chunk is sent to that shard as a
+ * single COPY statement. Each chunk runs in its own
+ * transaction, so a chunk the database rejects is recorded in the report and
+ * the import carries on with the next one.
+ *
+ * Supported input formats, both with the fields userId, productId, quantity,
+ * amount (in rupees with at most 2 decimal places, stored as paise) and
+ * orderTime (ISO-8601):
+ * - CSV, optionally with a header line
+ * - NDJSON, one JSON object per line
+ */
+@Service
+public class OrderImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderImportService.class);
+
+    private static final String COPY_SQL =
+            "COPY orders (userId, productId, quantity, amountPaise, orderTime) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Supported input formats
+     */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final DataSource dataSource;
+
+    private final ShardRouter router;
+
+    /**
+     * Reads JSON amounts as BigDecimal, so they never pass through a double
+     */
+    private final ObjectReader jsonReader;
+
+    private final int chunkSize;
+
+    /**
+     * The most recently started import, exposed for progress reporting
+     */
+    private final AtomicReference<ImportReport> lastImport = new AtomicReference<>();
+
+    public OrderImportService(DataSource dataSource,
+                              ShardRouter router,
+                              ObjectMapper objectMapper,
+                              @Value("${app.import.chunk-size:5000}") int chunkSize) {
+        this.dataSource = dataSource;
+        this.router = router;
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Get the report of the most recently started import
+     *
+     * @return The report, or null if no import has been started yet
+     */
+    public ImportReport getLastImport() {
+        return lastImport.get();
+    }
+
+    /**
+     * Stream orders from the given reader into the orders table
+     *
+     * @param reader Source of the input, consumed line by line
+     * @param format Format of the input
+     * @return The final import report
+     * @throws IOException if the input cannot be read
+     */
+    public ImportReport importOrders(BufferedReader reader, Format format) throws IOException {
+        ImportReport report = new ImportReport(format.name());
+        lastImport.set(report);
+        logger.info("Starting order import {} ({})", report.getJobId(), format);
+
+        int shards = router.shardCount();
+        StringBuilder[] chunks = new StringBuilder[shards];
+        int[] rowsInChunk = new int[shards];
+        long[] chunkFirstLine = new long[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            chunks[shard] = new StringBuilder(chunkSize * 96);
+        }
+        List<String> fields = new ArrayList<>(5);
+        long lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            report.lineRead();
+            if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isHeader(line))) {
+                continue;
+            }
+
+            int shard;
+            try {
+                fields.clear();
+                if (format == Format.CSV) {
+                    splitCsv(line, fields);
+                } else {
+                    readJson(line, fields);
+                }
+                shard = fields.isEmpty() ? 0 : router.shardFor(fields.get(0).trim());
+                appendRow(fields, chunks[shard]);
+            } catch (IllegalArgumentException | IOException e) {
+                report.rowRejected(lineNumber, e.getMessage());
+                continue;
+            }
+            if (rowsInChunk[shard]++ == 0) {
+                chunkFirstLine[shard] = lineNumber;
+            }
+
+            if (rowsInChunk[shard] >= chunkSize) {
+                copyChunk(shard, chunks[shard], rowsInChunk[shard], chunkFirstLine[shard], lineNumber, report);
+                chunks[shard].setLength(0);
+                rowsInChunk[shard] = 0;
+            }
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (rowsInChunk[shard] > 0) {
+                copyChunk(shard, chunks[shard], rowsInChunk[shard], chunkFirstLine[shard], lineNumber, report);
+            }
+        }
+
+        report.finish();
+        logger.info("Finished order import {}: {} rows imported, {} rejected, {} chunks failed, {} rows/s",
+                report.getJobId(), report.getRowsImported(), report.getRowsRejected(),
+                report.getChunksFailed(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Send one chunk of canonical CSV rows to a shard as a single COPY
+     */
+    private void copyChunk(int shard, StringBuilder chunk, int rows, long firstLine, long lastLine,
+                           ImportReport report) {
+        byte[] data = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        try (Connection connection = ShardContext.call(shard, this::openConnection)) {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                copyIn.writeToCopy(data, 0, data.length);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+            report.chunkCommitted(rows);
+            logger.info("Order import {}: {} lines read, {} rows imported",
+                    report.getJobId(), report.getLinesRead(), report.getRowsImported());
+        } catch (SQLException | IllegalStateException e) {
+            logger.warn("Order import {}: chunk of lines {}-{} for shard {} failed",
+                    report.getJobId(), firstLine, lastLine, shard, e);
+            report.chunkFailed(firstLine, lastLine, rows, e.getMessage());
+        }
+    }
+
+    /**
+     * Obtain a connection for the shard of the current ShardContext
+     */
+    private Connection openConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot connect to shard " + ShardContext.current(), e);
+        }
+    }
+
+    private static boolean isHeader(String line) {
+        return line.regionMatches(true, 0, "userId", 0, 6)
+                || line.regionMatches(true, 0, "\"userId\"", 0, 8);
+    }
+
+    /**
+     * Split a single CSV line into fields, honouring double-quoted fields
+     */
+    private static void splitCsv(String line, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+    }
+
+    private void readJson(String line, List<String> fields) throws IOException {
+        JsonNode node = jsonReader.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        for (String name : new String[] {"userId", "productId", "quantity", "amount", "orderTime"}) {
+            JsonNode value = node.get(name);
+            fields.add(value == null || value.isNull() ? "" : value.asText());
+        }
+    }
+
+    /**
+     * Validate the parsed fields and append them to the chunk as a canonical CSV row
+     */
+    private static void appendRow(List<String> fields, StringBuilder chunk) {
+        if (fields.size() != 5) {
+            throw new IllegalArgumentException("expected 5 fields but found " + fields.size());
+        }
+        String userId = fields.get(0).trim();
+        String productId = fields.get(1).trim();
+        if (userId.isEmpty() || productId.isEmpty()) {
+            throw new IllegalArgumentException("userId and productId are required");
+        }
+
+        int quantity;
+        BigDecimal amount;
+        Instant orderTime;
+        try {
+            quantity = Integer.parseInt(fields.get(2).trim());
+            amount = new BigDecimal(fields.get(3).trim());
+            orderTime = Instant.parse(fields.get(4).trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("malformed quantity, amount or orderTime");
+        }
+        if (quantity < 1 || amount.signum() < 0) {
+            throw new IllegalArgumentException("quantity must be >= 1 and amount a non-negative number");
+        }
+        // Amounts are exact rupees and paise; anything finer is rejected rather than rounded
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("amount must not have more than 2 decimal places");
+        }
+        long amountPaise;
+        try {
+            amountPaise = amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("amount is too large");
+        }
+
+        appendQuoted(userId, chunk);
+        chunk.append(',');
+        appendQuoted(productId, chunk);
+        chunk.append(',').append(quantity)
+                .append(',').append(amountPaise)
+                .append(',').append(orderTime)
+                .append('\n');
+    }
+
+    private static void appendQuoted(String value, StringBuilder chunk) {
+        chunk.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                chunk.append('"');
+            }
+            chunk.append(c);
+        }
+        chunk.append('"');
+    }
+}
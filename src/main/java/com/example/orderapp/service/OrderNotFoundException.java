@@ -0,0 +1,11 @@
+package com.example.orderapp.service;
+
+/**
+ * Thrown when an order does not exist or does not belong to the caller.
+ */
+public class OrderNotFoundException extends RuntimeException {
+
+    public OrderNotFoundException(Long id) {
+        super("Order not found: " + id);
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.orderapp.service;
 
 import com.example.orderapp.model.Order;
+import com.example.orderapp.monitoring.RequestTimings;
 import com.example.orderapp.repository.OrderRepository;
+import com.example.orderapp.repository.OrderSpecifications;
+import com.example.orderapp.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Order Service
@@ -19,7 +27,14 @@ import java.util.List;
  * - Implementing business rules around order creation
  * - Validating and processing order data
  * - Managing order history retrieval
- * - Providing comprehensive logging for order operations
+ * - Logging failed order operations
+ * 
+ * Each public method reports its duration as the "service" phase of the
+ * current request's RequestTimings. Successful calls are not logged
+ * individually; the sampled access log covers them.
+ * 
+ * Orders are sharded by user: every repository call runs on the shard that
+ * owns the user, as chosen by the ShardRouter.
  * 
  * The service follows the principle of single responsibility and hides
  * the data access details from the controllers.
@@ -30,19 +45,54 @@ public class OrderService {
      * Logger for capturing service-level events and errors
      */
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    /**
+     * Fields the filtered history can be sorted by, mapped to the entity
+     * attribute that backs them; each is backed by an index
+     */
+    private static final Map<String, String> SORTABLE_FIELDS = Map.of(
+            "orderTime", "orderTime",
+            "amount", "amountPaise");
+
+    /**
+     * Upper bound on the page size a client may request
+     */
+    private static final int MAX_PAGE_SIZE = 100;
     
     /**
      * Repository for data access operations
      */
     private final OrderRepository repo;
+
+    /**
+     * In-memory product catalog used to price orders
+     */
+    private final ProductCatalog catalog;
+
+    /**
+     * In-memory inventory used to reserve stock for orders
+     */
+    private final InventoryService inventory;
+
+    /**
+     * Router that selects the shard holding a user's orders
+     */
+    private final ShardRouter router;
     
     /**
      * Constructor for dependency injection
      * 
      * @param repo The order repository to be used for data operations
+     * @param catalog The product catalog used to price orders
+     * @param inventory The inventory used to reserve stock
+     * @param router The shard router for the user's orders
      */
-    public OrderService(OrderRepository repo) {
+    public OrderService(OrderRepository repo, ProductCatalog catalog, InventoryService inventory,
+                        ShardRouter router) {
         this.repo = repo;
+        this.catalog = catalog;
+        this.inventory = inventory;
+        this.router = router;
     }
 
     /**
@@ -50,40 +100,61 @@ public class OrderService {
      * 
      * This method:
      * 1. Sets the authenticated user ID on the order
-     * 2. Sets the current timestamp as the order time
-     * 3. Persists the order to the database
-     * 4. Logs the operation outcome
+     * 2. Computes the amount as unit price × quantity from the product catalog,
+     *    ignoring any amount supplied by the client
+     * 3. Reserves stock for stock-managed products
+     * 4. Sets the current timestamp as the order time
+     * 5. Persists the order to the database, releasing the stock if that fails
+     * 6. Logs the failure, if any
      * 
+     * Pricing and stock reservation are in-memory and perform no I/O; the stock
+     * change reaches the database asynchronously via the InventoryService.
      * Any exceptions during the process are logged and propagated up to the controller.
      * 
      * @param userId The authenticated user's ID (from Firebase auth)
      * @param order The order details to be saved
      * @return The saved order with generated ID and timestamp
+     * @throws InvalidRequestException if the quantity is invalid or the product is unknown
+     * @throws InsufficientStockException if the product does not have enough stock
      * @throws RuntimeException if database operation fails
      */
     public Order saveOrder(String userId, Order order) {
+        long start = System.nanoTime();
         try {
-            logger.info("Attempting to save order for user: {}", userId);
-            
-            // Set the user ID from the authentication context
-            order.setUserId(userId);
-            
-            // Set the current timestamp as the order time
-            order.setOrderTime(Instant.now());
-            
-            // Persist the order to the database
-            Order savedOrder = repo.save(order);
-            
-            // Log success message with the generated order ID
-            logger.info("Order saved successfully with ID: {}", savedOrder.getId());
-            
-            return savedOrder;
-        } catch (Exception e) {
-            // Log detailed error information but avoid exposing sensitive data
-            logger.error("Failed to save order for user: {}", userId, e);
-            
-            // Re-throw the exception to allow the controller's exception handler to manage it
-            throw e;
+            if (order.getQuantity() < 1) {
+                throw new InvalidRequestException("Quantity must be at least 1");
+            }
+            long unitPrice = catalog.current().priceOf(order.getProductId());
+            if (unitPrice == CatalogSnapshot.UNKNOWN) {
+                throw new InvalidRequestException("Unknown product: " + order.getProductId());
+            }
+            InventoryService.Reservation reservation = inventory.reserve(order.getProductId(), order.getQuantity());
+
+            try {
+                // Set the user ID from the authentication context
+                order.setUserId(userId);
+
+                // Price the order on the server; the client-supplied amount is not trusted
+                order.setAmountPaise(Math.multiplyExact(unitPrice, (long) order.getQuantity()));
+                
+                // Set the current timestamp as the order time
+                order.setOrderTime(Instant.now());
+                
+                // Persist the order to the user's shard
+                return router.onShardOf(userId, () -> repo.save(order));
+            } catch (Exception e) {
+                // The order was not placed, so its stock must not stay reserved
+                inventory.release(reservation);
+
+                // Log detailed error information but avoid exposing sensitive data
+                logger.error("Failed to save order for user: {}", userId, e);
+                
+                // Re-throw the exception to allow the controller's exception handler to manage it
+                throw e;
+            }
+        } finally {
+            // Rejected orders spend service time too, so timing covers validation and reservation
+            RequestTimings.record(RequestTimings.Phase.SERVICE, start);
         }
     }
 
@@ -98,22 +169,105 @@ public class OrderService {
      * @throws RuntimeException if database operation fails
      */
     public List<Order> getHistory(String userId) {
+        long start = System.nanoTime();
         try {
-            logger.info("Fetching order history for user: {}", userId);
-            
             // Fetch all orders for the specified user
-            List<Order> orders = repo.findByUserId(userId);
-            
-            // Log the result with count for monitoring and debugging
-            logger.info("Found {} orders for user: {}", orders.size(), userId);
-            
-            return orders;
+            return router.onShardOf(userId, () -> repo.findByUserId(userId));
         } catch (Exception e) {
             // Log detailed error information
             logger.error("Failed to fetch order history for user: {}", userId, e);
             
             // Re-throw the exception to allow the controller's exception handler to manage it
             throw e;
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SERVICE, start);
+        }
+    }
+
+    /**
+     * Retrieve a single order of a specific user
+     * 
+     * The order is looked up by primary key on the user's shard, which is
+     * usually answered from the second-level cache. Orders of other users are
+     * reported as not found.
+     * 
+     * @param userId The authenticated user's ID
+     * @param id The order ID
+     * @return The order
+     * @throws OrderNotFoundException if the order does not exist or belongs to another user
+     */
+    public Order getOrder(String userId, Long id) {
+        long start = System.nanoTime();
+        try {
+            return router.onShardOf(userId, () -> repo.findById(id))
+                    .filter(order -> userId.equals(order.getUserId()))
+                    .orElseThrow(() -> new OrderNotFoundException(id));
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SERVICE, start);
+        }
+    }
+
+    /**
+     * Search the order history of a specific user with optional filters
+     * 
+     * All filtering, sorting and paging is pushed down to the database, so only
+     * the requested page is loaded. Filters that are null are ignored.
+     * 
+     * @param userId The user ID to retrieve orders for
+     * @param from Inclusive lower bound on the order time, or null
+     * @param to Exclusive upper bound on the order time, or null
+     * @param productId Product to restrict to, or null for all products
+     * @param minAmount Inclusive lower bound on the amount, or null
+     * @param maxAmount Inclusive upper bound on the amount, or null
+     * @param sortBy Field to sort by, either "orderTime" or "amount"
+     * @param ascending Whether to sort ascending instead of descending
+     * @param page Zero-based page index
+     * @param size Number of orders per page, at most MAX_PAGE_SIZE
+     * @return The requested page of matching orders
+     * @throws InvalidRequestException if the filter or paging parameters are invalid
+     */
+    public Page<Order> searchHistory(String userId, Instant from, Instant to, String productId,
+                                     Double minAmount, Double maxAmount, String sortBy,
+                                     boolean ascending, int page, int size) {
+        long start = System.nanoTime();
+        try {
+            String sortAttribute = SORTABLE_FIELDS.get(sortBy);
+            if (sortAttribute == null) {
+                throw new InvalidRequestException("Unsupported sort field: " + sortBy);
+            }
+            if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+                throw new InvalidRequestException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+            }
+            if (from != null && to != null && !from.isBefore(to)) {
+                throw new InvalidRequestException("'from' must be before 'to'");
+            }
+            if ((minAmount != null && !Double.isFinite(minAmount))
+                    || (maxAmount != null && !Double.isFinite(maxAmount))) {
+                throw new InvalidRequestException("Amount bounds must be finite numbers");
+            }
+            if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+                throw new InvalidRequestException("'minAmount' must not exceed 'maxAmount'");
+            }
+
+            Specification<Order> spec = Specification.where(OrderSpecifications.belongsTo(userId))
+                    .and(OrderSpecifications.forProduct(productId))
+                    .and(OrderSpecifications.placedFrom(from))
+                    .and(OrderSpecifications.placedBefore(to))
+                    .and(OrderSpecifications.amountAtLeast(minAmount))
+                    .and(OrderSpecifications.amountAtMost(maxAmount));
+
+            // Tie-break on id so that paging is stable when sort values repeat
+            Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Sort sort = Sort.by(direction, sortAttribute).and(Sort.by(direction, "id"));
+
+            try {
+                return router.onShardOf(userId, () -> repo.findAll(spec, PageRequest.of(page, size, sort)));
+            } catch (Exception e) {
+                logger.error("Failed to search order history for user: {}", userId, e);
+                throw e;
+            }
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.SERVICE, start);
         }
     }
-}
\ No newline at end of file
+}
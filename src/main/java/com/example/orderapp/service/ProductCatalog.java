@@ -0,0 +1,118 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Product Catalog
+ *
+ * Holds the current CatalogSnapshot and refreshes it from the products table
+ * in the background. Pricing an order is then a pure in-memory lookup with no
+ * database round trip on the request path.
+ *
+ * Refreshes are copy-on-write: a complete new snapshot is built off to the side
+ * and published with a single volatile write, so concurrent readers either see
+ * the old catalog or the new one, never a mix. A failed refresh keeps serving
+ * the previous snapshot.
+ *
+ * The first snapshot is loaded synchronously while the application starts, so
+ * orders are priced from the first request on instead of being rejected as
+ * unknown products until the first scheduled refresh.
+ *
+ * Metrics:
+ * - catalog.snapshot.version: version of the snapshot being served
+ * - catalog.snapshot.products: number of products in it
+ * - catalog.snapshot.age: seconds since it was loaded
+ * - catalog.refresh: refresh duration, and catalog.refresh.failures
+ */
+@Component
+public class ProductCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private final ProductRepository productRepository;
+
+    private final Timer refreshTimer;
+
+    private final Counter refreshFailures;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.empty();
+
+    /**
+     * The OrderAmountMigration is injected only so that legacy prices have
+     * been converted to paise before the first snapshot is loaded
+     */
+    public ProductCatalog(ProductRepository productRepository,
+                          MeterRegistry meterRegistry,
+                          OrderAmountMigration orderAmountMigration) {
+        this.productRepository = productRepository;
+        this.refreshTimer = meterRegistry.timer("catalog.refresh");
+        this.refreshFailures = meterRegistry.counter("catalog.refresh.failures");
+        Gauge.builder("catalog.snapshot.version", this, c -> c.snapshot.getVersion())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.products", this, c -> c.snapshot.size())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, ProductCatalog::snapshotAgeSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the snapshot currently being served
+     * @return The current catalog snapshot, never null
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Load the first snapshot before the application starts serving requests
+     */
+    @PostConstruct
+    void loadInitialSnapshot() {
+        refresh();
+        if (snapshot.getVersion() == 0) {
+            logger.warn("Product catalog could not be loaded at startup; orders are rejected until it is");
+        } else if (snapshot.size() == 0) {
+            logger.warn("Product catalog is empty; add rows to the products table to accept orders");
+        }
+    }
+
+    /**
+     * Reload the catalog from the database and publish it as a new snapshot
+     *
+     * Runs once at startup and then periodically, as configured by
+     * app.catalog.refresh-interval-ms.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval-ms:60000}",
+               initialDelayString = "${app.catalog.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot next = CatalogSnapshot.of(productRepository.findAll(), snapshot.getVersion() + 1);
+            snapshot = next;
+            logger.debug("Catalog snapshot {} loaded with {} products", next.getVersion(), next.size());
+        } catch (Exception e) {
+            refreshFailures.increment();
+            logger.error("Failed to refresh product catalog, keeping snapshot {}", snapshot.getVersion(), e);
+        } finally {
+            refreshTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private double snapshotAgeSeconds() {
+        Instant loadedAt = snapshot.getLoadedAt();
+        return loadedAt == null ? Double.NaN : Duration.between(loadedAt, Instant.now()).toMillis() / 1000.0;
+    }
+}
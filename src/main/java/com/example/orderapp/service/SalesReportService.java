@@ -0,0 +1,136 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.DailySalesRollup;
+import com.example.orderapp.repository.DailySalesRollupRepository;
+import com.example.orderapp.sharding.ShardRouter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales Report Service
+ *
+ * Each shard rolls up its own orders (see SalesRollupService), so a report is
+ * answered by querying the rollup table of every shard in parallel and summing
+ * the rows for the same day and product. Amounts are summed in paise.
+ */
+@Service
+public class SalesReportService {
+
+    private static final Comparator<DailySalesRollup> BY_DAY_AND_PRODUCT =
+            Comparator.comparing(DailySalesRollup::getSalesDay).thenComparing(DailySalesRollup::getProductId);
+
+    private final DailySalesRollupRepository rollupRepository;
+
+    private final ShardRouter router;
+
+    public SalesReportService(DailySalesRollupRepository rollupRepository, ShardRouter router) {
+        this.rollupRepository = rollupRepository;
+        this.router = router;
+    }
+
+    /**
+     * Per-day totals across all products, merged from all shards
+     */
+    public static final class MergedTotals implements DailySalesRollupRepository.DailyTotals {
+        private final LocalDate salesDay;
+        private long orderCount;
+        private long quantitySum;
+        private long amountSumPaise;
+
+        private MergedTotals(LocalDate salesDay) {
+            this.salesDay = salesDay;
+        }
+
+        @Override
+        public LocalDate getSalesDay() {
+            return salesDay;
+        }
+
+        @Override
+        public long getOrderCount() {
+            return orderCount;
+        }
+
+        @Override
+        public long getQuantitySum() {
+            return quantitySum;
+        }
+
+        @Override
+        @JsonIgnore
+        public long getAmountSumPaise() {
+            return amountSumPaise;
+        }
+
+        /**
+         * Get the total amount in rupees, the "amountSum" of the JSON format
+         * @return The amount sum
+         */
+        public double getAmountSum() {
+            return amountSumPaise / 100.0;
+        }
+    }
+
+    /**
+     * Revenue and volume per product per day
+     *
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @param productId Product to restrict to, or null for all products
+     * @return Rollup rows ordered by day and product
+     */
+    public List<DailySalesRollup> dailySales(LocalDate from, LocalDate to, String productId) {
+        List<List<DailySalesRollup>> perShard = router.scatter(shard -> productId != null
+                ? rollupRepository.findByProductIdAndSalesDayBetweenOrderBySalesDayAsc(productId, from, to)
+                : rollupRepository.findBySalesDayBetweenOrderBySalesDayAscProductIdAsc(from, to));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+
+        Map<DailySalesRollup.Key, DailySalesRollup> merged = new HashMap<>();
+        for (List<DailySalesRollup> rows : perShard) {
+            for (DailySalesRollup row : rows) {
+                merged.merge(new DailySalesRollup.Key(row.getSalesDay(), row.getProductId()), row,
+                        (a, b) -> new DailySalesRollup(a.getSalesDay(), a.getProductId(),
+                                a.getOrderCount() + b.getOrderCount(),
+                                a.getQuantitySum() + b.getQuantitySum(),
+                                a.getAmountSumPaise() + b.getAmountSumPaise()));
+            }
+        }
+        List<DailySalesRollup> result = new ArrayList<>(merged.values());
+        result.sort(BY_DAY_AND_PRODUCT);
+        return result;
+    }
+
+    /**
+     * Revenue and volume per day across all products
+     *
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return One row per day that had orders, ordered by day
+     */
+    public List<MergedTotals> dailyTotals(LocalDate from, LocalDate to) {
+        List<List<DailySalesRollupRepository.DailyTotals>> perShard =
+                router.scatter(shard -> rollupRepository.sumByDay(from, to));
+
+        // Also with a single shard, so that the amount is always converted the same way
+        Map<LocalDate, MergedTotals> merged = new TreeMap<>();
+        for (List<DailySalesRollupRepository.DailyTotals> rows : perShard) {
+            for (DailySalesRollupRepository.DailyTotals row : rows) {
+                MergedTotals totals = merged.computeIfAbsent(row.getSalesDay(), MergedTotals::new);
+                totals.orderCount += row.getOrderCount();
+                totals.quantitySum += row.getQuantitySum();
+                totals.amountSumPaise += row.getAmountSumPaise();
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
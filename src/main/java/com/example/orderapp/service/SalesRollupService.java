@@ -0,0 +1,287 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales Rollup Service
+ *
+ * Incrementally maintains the daily_sales_rollup table from the orders table.
+ *
+ * Progress is tracked by a high-water mark on Order.id stored in
+ * rollup_watermark. Each run folds the orders above the mark into the rollup
+ * in batches; every batch adds its aggregates and advances the mark in the
+ * same transaction, so a batch is applied exactly once even if the job crashes
+ * or runs on several instances at the same time (the watermark row is locked
+ * for the duration of the batch).
+ *
+ * Every shard keeps the rollup and watermark of its own orders; a run
+ * processes the shards one after another. The watermark only walks the range
+ * of IDs the shard issues itself. Orders the ShardRebalancer moves keep the ID
+ * of the shard they were placed on, so they are never picked up by the
+ * watermark of the shard they move to; the rebalancer moves their
+ * contributions along instead (see adjust).
+ *
+ * Order IDs are drawn when a row is inserted but become visible only when its
+ * transaction commits, so a committed order can have a higher ID than one that
+ * is still in flight. The mark must never move past such an order:
+ * - An order has settled once its database-assigned createdAt (the start of
+ *   its transaction, never the client- or import-supplied orderTime) is more
+ *   than twice the settle delay in the past, measured on the database clock.
+ *   An order without a createdAt was written outside the application, which
+ *   always lets the database assign one, and counts as settled; otherwise it
+ *   would hold the mark back forever.
+ * - A batch ends below the lowest visible order that has not settled.
+ * As long as every transaction that writes orders finishes within the settle
+ * delay, an order below a settled one has then either committed or rolled
+ * back: its ID was drawn before the settled order's, which was drawn at most
+ * one settle delay after that transaction started.
+ *
+ * The SQL is plain enough to run on PostgreSQL and on the H2 test shards.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final String ROLLUP_NAME = "daily_sales";
+
+    private static final String INIT_WATERMARK_SQL =
+            "INSERT INTO rollup_watermark (name, lastOrderId) "
+            + "SELECT ?, 0 WHERE NOT EXISTS (SELECT 1 FROM rollup_watermark WHERE name = ?)";
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT lastOrderId FROM rollup_watermark WHERE name = ? FOR UPDATE";
+
+    private static final String DATABASE_NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private static final String FIRST_UNSETTLED_SQL =
+            "SELECT min(id) FROM orders WHERE id > ? AND createdAt >= ?";
+
+    private static final String NEXT_BATCH_END_SQL =
+            "SELECT max(id) FROM (SELECT id FROM orders WHERE id > ? AND id < ? ORDER BY id LIMIT ?) batch";
+
+    /**
+     * Aggregate a batch per product and local sales day. The day is taken apart
+     * with EXTRACT because casting the zoned time to a date converts it back to
+     * the session time zone on some databases.
+     */
+    private static final String AGGREGATE_SQL =
+            "SELECT salesYear, salesMonth, salesDayOfMonth, productId, count(*) AS orderCount, "
+            + "sum(quantity) AS quantitySum, sum(amountPaise) AS amountPaise FROM ("
+            + "SELECT EXTRACT(YEAR FROM orderTime AT TIME ZONE ?) AS salesYear, "
+            + "EXTRACT(MONTH FROM orderTime AT TIME ZONE ?) AS salesMonth, "
+            + "EXTRACT(DAY FROM orderTime AT TIME ZONE ?) AS salesDayOfMonth, productId, quantity, amountPaise "
+            + "FROM orders WHERE id > ? AND id <= ?) batch "
+            + "GROUP BY salesYear, salesMonth, salesDayOfMonth, productId";
+
+    private static final String ADD_TO_ROLLUP_SQL =
+            "UPDATE daily_sales_rollup SET orderCount = orderCount + ?, quantitySum = quantitySum + ?, "
+            + "amountSumPaise = amountSumPaise + ? WHERE salesDay = ? AND productId = ?";
+
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO daily_sales_rollup (salesDay, productId, orderCount, quantitySum, amountSumPaise) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String DELETE_EMPTY_ROLLUP_SQL = "DELETE FROM daily_sales_rollup WHERE orderCount = 0";
+
+    private static final String ADVANCE_WATERMARK_SQL =
+            "UPDATE rollup_watermark SET lastOrderId = ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ShardRouter router;
+
+    private final String timeZone;
+
+    private final Duration settleDelay;
+
+    private final int batchSize;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ShardRouter router,
+                              @Value("${app.rollup.time-zone:UTC}") String timeZone,
+                              @Value("${app.rollup.settle-delay:PT1M}") Duration settleDelay,
+                              @Value("${app.rollup.batch-size:50000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.router = router;
+        this.timeZone = timeZone;
+        this.settleDelay = settleDelay;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fold all settled orders above the high-water mark into the rollup
+     *
+     * Runs periodically as configured by app.rollup.interval-ms. A large backlog,
+     * such as the first run over existing history, is processed in batches of
+     * app.rollup.batch-size orders.
+     */
+    @Scheduled(fixedDelayString = "${app.rollup.interval-ms:300000}")
+    public void rollUp() {
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            try {
+                long batches = router.onShard(target, () -> rollUpShard(target));
+                if (batches > 0) {
+                    logger.info("Daily sales rollup of shard {} advanced by {} batches", target, batches);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to update daily sales rollup of shard {}", target, e);
+            }
+        }
+    }
+
+    /**
+     * Fold the settled orders of the current shard into its rollup
+     *
+     * @return The number of batches applied
+     */
+    private long rollUpShard(int shard) {
+        initWatermark();
+        OffsetDateTime now = jdbcTemplate.queryForObject(DATABASE_NOW_SQL, OffsetDateTime.class);
+        OffsetDateTime cutoff = now.minus(settleDelay.multipliedBy(2));
+        long batches = 0;
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> rollUpBatch(shard, cutoff)))) {
+            batches++;
+        }
+        return batches;
+    }
+
+    /**
+     * Create the watermark of the current shard if it does not exist yet
+     *
+     * Must run outside of a transaction: another instance may create it at the same time.
+     */
+    public void initWatermark() {
+        try {
+            jdbcTemplate.update(INIT_WATERMARK_SQL, ROLLUP_NAME, ROLLUP_NAME);
+        } catch (DuplicateKeyException e) {
+            // Another instance created it first
+        }
+    }
+
+    /**
+     * Apply one batch; must run inside a transaction
+     *
+     * The watermark row is locked first, so no other instance adds to the
+     * rollup of this shard until the transaction ends and inserting missing
+     * rollup rows cannot race.
+     *
+     * @return true if a batch was applied, false if there was nothing to do
+     */
+    private boolean rollUpBatch(int shard, OffsetDateTime cutoff) {
+        long from = Math.max(lockWatermark(), ShardRouter.idRangeStart(shard));
+        long rangeEnd = ShardRouter.idRangeStart(shard + 1);
+        Long firstUnsettled = jdbcTemplate.queryForObject(FIRST_UNSETTLED_SQL, Long.class, from, cutoff);
+        long limit = firstUnsettled != null ? Math.min(firstUnsettled, rangeEnd) : rangeEnd;
+        Long to = jdbcTemplate.queryForObject(NEXT_BATCH_END_SQL, Long.class, from, limit, batchSize);
+        if (to == null) {
+            return false;
+        }
+
+        List<Object[]> rows = jdbcTemplate.query(AGGREGATE_SQL, (rs, rowNum) -> new Object[] {
+                rs.getLong("orderCount"), rs.getLong("quantitySum"), rs.getLong("amountPaise"),
+                LocalDate.of(rs.getInt("salesYear"), rs.getInt("salesMonth"), rs.getInt("salesDayOfMonth")),
+                rs.getString("productId")
+        }, timeZone, timeZone, timeZone, from, to);
+        addToRollup(rows);
+        jdbcTemplate.update(ADVANCE_WATERMARK_SQL, to, ROLLUP_NAME);
+        return true;
+    }
+
+    /**
+     * Lock the watermark of the current shard until the transaction ends
+     *
+     * @return The ID of the last order the rollup has picked up
+     */
+    private long lockWatermark() {
+        Long lastOrderId = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, Long.class, ROLLUP_NAME);
+        return lastOrderId != null ? lastOrderId : 0;
+    }
+
+    /**
+     * Add orders that moved onto a shard to its rollup, or remove orders that
+     * moved off it
+     *
+     * Only orders the shard's rollup counts are adjusted: those from other
+     * shards, which only ever get there through this method, and its own ones
+     * below the watermark. The watermark is locked until the transaction ends,
+     * so a concurrent run cannot count the same orders. Must run in a
+     * transaction on the shard, after initWatermark.
+     *
+     * @param shard The shard the orders moved onto or off
+     * @param orders The moved orders
+     * @param sign 1 to add the orders, -1 to remove them
+     */
+    public void adjust(int shard, List<Order> orders, int sign) {
+        long watermark = lockWatermark();
+        long rangeStart = ShardRouter.idRangeStart(shard);
+        long rangeEnd = ShardRouter.idRangeStart(shard + 1);
+        ZoneId zone = ZoneId.of(timeZone);
+        Map<List<Object>, long[]> totals = new LinkedHashMap<>();
+        for (Order order : orders) {
+            long id = order.getId();
+            if (id > watermark && id > rangeStart && id < rangeEnd) {
+                // Still ahead of the watermark, a later run takes care of it
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(
+                    List.of(order.getOrderTime().atZone(zone).toLocalDate(), order.getProductId()),
+                    key -> new long[3]);
+            total[0]++;
+            total[1] += order.getQuantity();
+            total[2] += order.getAmountPaise();
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> rows.add(new Object[] {
+                sign * total[0], sign * total[1], sign * total[2], key.get(0), key.get(1)
+        }));
+        addToRollup(rows);
+        if (sign < 0) {
+            jdbcTemplate.update(DELETE_EMPTY_ROLLUP_SQL);
+        }
+    }
+
+    /**
+     * Add aggregated rows of {orderCount, quantitySum, amountSumPaise, salesDay, productId}
+     * to the rollup, creating the rows that do not exist yet
+     */
+    private void addToRollup(List<Object[]> rows) {
+        int[] updated = jdbcTemplate.batchUpdate(ADD_TO_ROLLUP_SQL, rows);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] row = rows.get(i);
+                missing.add(new Object[] {row[3], row[4], row[0], row[1], row[2]});
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, missing);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.orderapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock Ledger
+ *
+ * Lock-free, in-memory stock levels. Each product has its own counter, so
+ * orders for different products never contend, and orders for the same hot
+ * product only contend on a single compare-and-set instead of a database row
+ * lock.
+ *
+ * Every counter packs two signed 32-bit values into one AtomicLong:
+ * - available: units that can still be reserved
+ * - pending: units reserved (or released) since the last flush to the database
+ * Because both change in a single CAS, a reader always sees a consistent pair,
+ * which is what makes reconciliation against the database exact.
+ *
+ * The ledger itself does no I/O; the InventoryService drains the pending
+ * deltas to the database and feeds back the durable stock levels.
+ */
+public class StockLedger {
+
+    /**
+     * Outcome of a reservation attempt
+     */
+    public enum Outcome {
+        /** The units were reserved */
+        RESERVED,
+        /** Not enough units are available; nothing was reserved */
+        INSUFFICIENT,
+        /** The product is not stock-managed; nothing was reserved */
+        UNTRACKED
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> stock = new ConcurrentHashMap<>();
+
+    /**
+     * Try to reserve units of a product
+     *
+     * @param productId The product identifier
+     * @param quantity Number of units to reserve, at least 1
+     * @return The outcome of the attempt
+     */
+    public Outcome tryReserve(String productId, int quantity) {
+        AtomicLong counter = stock.get(productId);
+        if (counter == null) {
+            return Outcome.UNTRACKED;
+        }
+        while (true) {
+            long current = counter.get();
+            int available = available(current);
+            if (available < quantity) {
+                return Outcome.INSUFFICIENT;
+            }
+            long next = pack(available - quantity, pending(current) + quantity);
+            if (counter.compareAndSet(current, next)) {
+                return Outcome.RESERVED;
+            }
+        }
+    }
+
+    /**
+     * Return previously reserved units, e.g. because the order could not be saved
+     *
+     * @param productId The product identifier
+     * @param quantity Number of units to return
+     */
+    public void release(String productId, int quantity) {
+        AtomicLong counter = stock.get(productId);
+        if (counter == null) {
+            return;
+        }
+        counter.getAndUpdate(current -> pack(available(current) + quantity, pending(current) - quantity));
+    }
+
+    /**
+     * Take the pending deltas of all products, resetting them to zero
+     *
+     * @return Units reserved per product since the last drain; negative if more were released
+     */
+    public Map<String, Long> drainPending() {
+        Map<String, Long> deltas = new HashMap<>();
+        stock.forEach((productId, counter) -> {
+            long previous = counter.getAndUpdate(current -> pack(available(current), 0));
+            int pending = pending(previous);
+            if (pending != 0) {
+                deltas.put(productId, (long) pending);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * Put back deltas taken by drainPending that could not be written to the database
+     *
+     * @param deltas The deltas returned by drainPending
+     */
+    public void restorePending(Map<String, Long> deltas) {
+        deltas.forEach((productId, delta) -> {
+            AtomicLong counter = stock.get(productId);
+            if (counter != null) {
+                counter.getAndUpdate(current -> pack(available(current), pending(current) + delta.intValue()));
+            }
+        });
+    }
+
+    /**
+     * Align the in-memory level of a product with its durable stock level
+     *
+     * The database has not yet seen the pending units, so the product's
+     * availability is set to the durable level minus those. Must not run
+     * concurrently with a drain/flush cycle. Unknown products start being tracked.
+     *
+     * @param productId The product identifier
+     * @param durableAvailable Units available according to the database
+     */
+    public void reconcile(String productId, long durableAvailable) {
+        int durable = (int) Math.min(Integer.MAX_VALUE, Math.max(0, durableAvailable));
+        AtomicLong counter = stock.computeIfAbsent(productId, id -> new AtomicLong(pack(durable, 0)));
+        counter.getAndUpdate(current -> pack(durable - pending(current), pending(current)));
+    }
+
+    /**
+     * Get the units currently available for a product
+     *
+     * @param productId The product identifier
+     * @return Available units, or -1 if the product is not stock-managed
+     */
+    public int available(String productId) {
+        AtomicLong counter = stock.get(productId);
+        return counter == null ? -1 : available(counter.get());
+    }
+
+    private static long pack(int available, int pending) {
+        return ((long) available << 32) | (pending & 0xFFFFFFFFL);
+    }
+
+    private static int available(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int pending(long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.orderapp.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Consistent Hash Ring
+ *
+ * Maps user IDs to shards. Every shard owns a number of virtual points on a
+ * 64-bit ring, and a user belongs to the shard owning the first point at or
+ * after the hash of their ID. Points are derived from the shard index only, so
+ * adding shard N moves roughly 1/(N+1) of the users, all of them to the new
+ * shard, and leaves everyone else where they are.
+ *
+ * Instances are immutable; lookups are a binary search over a sorted long[].
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+    private final int shardCount;
+
+    /**
+     * Build a ring
+     *
+     * @param shardCount Number of shards, at least 1
+     * @param virtualNodes Points per shard; more points give a more even spread
+     */
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("shardCount and virtualNodes must be at least 1");
+        }
+        this.shardCount = shardCount;
+        int total = shardCount * virtualNodes;
+        long[] hashes = new long[total];
+        int[] shards = new int[total];
+        int i = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash("shard-" + shard + "#" + v);
+                shards[i] = shard;
+                i++;
+            }
+        }
+
+        // Sort the points, carrying their owners along
+        Integer[] order = new Integer[total];
+        for (int j = 0; j < total; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int j = 0; j < total; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = shards[order[j]];
+        }
+    }
+
+    /**
+     * Find the shard a user belongs to
+     *
+     * @param userId The Firebase user ID
+     * @return The shard index
+     */
+    public int shardFor(String userId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(points, hash(userId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
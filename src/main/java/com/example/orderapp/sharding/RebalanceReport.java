@@ -0,0 +1,42 @@
+package com.example.orderapp.sharding;
+
+import java.util.List;
+
+/**
+ * Rebalance Report
+ *
+ * Outcome of a ShardRebalancer run. In a dry run the counts describe what
+ * would have been moved.
+ */
+public class RebalanceReport {
+    private final boolean dryRun;
+    private final List<Long> ordersPerShard;
+    private final long usersMoved;
+    private final long ordersMoved;
+
+    RebalanceReport(boolean dryRun, List<Long> ordersPerShard, long usersMoved, long ordersMoved) {
+        this.dryRun = dryRun;
+        this.ordersPerShard = ordersPerShard;
+        this.usersMoved = usersMoved;
+        this.ordersMoved = ordersMoved;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Order counts per shard, indexed by shard, taken after the run
+     */
+    public List<Long> getOrdersPerShard() {
+        return ordersPerShard;
+    }
+
+    public long getUsersMoved() {
+        return usersMoved;
+    }
+
+    public long getOrdersMoved() {
+        return ordersMoved;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orderapp.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard Context
+ *
+ * Holds the shard the current thread's database work is routed to. The
+ * ShardRoutingDataSource reads it whenever a connection is obtained, so it
+ * must be set before a transaction (or a non-transactional repository call)
+ * starts.
+ *
+ * Work that does not set a shard runs on shard 0, which also holds the global
+ * reference data (products, inventory).
+ */
+public final class ShardContext {
+
+    /**
+     * Shard used when none has been set
+     */
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Get the shard of the current thread
+     * @return The shard index, DEFAULT_SHARD if none is set
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    /**
+     * Run work against a specific shard, restoring the previous shard afterwards
+     *
+     * @param shard The shard index
+     * @param work The work to run
+     * @return The result of the work
+     */
+    public static <T> T call(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Run work against a specific shard, restoring the previous shard afterwards
+     *
+     * @param shard The shard index
+     * @param work The work to run
+     */
+    public static void run(int shard, Runnable work) {
+        call(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.orderapp.sharding;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.service.SalesRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shard Rebalancer
+ *
+ * Migration tool for changing the shard list. After a shard has been appended
+ * to app.sharding.shards, part of the users hash to the new shard while their
+ * existing orders still live on the old one. A rebalance finds every user whose
+ * orders sit on a shard other than the one the ring assigns them to and moves
+ * those orders:
+ * 1. Copy the user's orders to the target shard, keeping their IDs
+ *    (copies left behind by an interrupted run are kept)
+ * 2. Delete the copied orders from the source shard
+ *
+ * Each step commits on its own shard, so an interrupted run at worst leaves
+ * orders on both shards; running the rebalance again finishes the move. Order
+ * IDs are unique across shards (see ShardSchemaInitializer), so copies never
+ * collide with orders placed on the target shard.
+ *
+ * The daily sales rollup of each shard only picks up the orders it issued
+ * itself, so each step also moves the orders' contributions in the same
+ * transaction (see SalesRollupService.adjust): the target adds the copies to
+ * its rollup, and the source removes the deleted orders it had counted.
+ *
+ * Until a user has been moved their older orders are not visible through the
+ * order endpoints, so the rebalance should run right after the new shard list
+ * is deployed.
+ */
+@Service
+public class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final int USER_PAGE_SIZE = 1000;
+
+    private static final String USERS_SQL =
+            "SELECT DISTINCT userId FROM orders WHERE userId > ? ORDER BY userId LIMIT ?";
+
+    private static final String SELECT_ORDERS_SQL =
+            "SELECT id, userId, productId, quantity, amountPaise, orderTime FROM orders WHERE userId = ? ORDER BY id";
+
+    private static final String COPIED_IDS_SQL = "SELECT id FROM orders WHERE userId = ? AND id BETWEEN ? AND ?";
+
+    private static final String COPY_ORDER_SQL =
+            "INSERT INTO orders (id, userId, productId, quantity, amountPaise, orderTime) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_ORDERS_SQL = "DELETE FROM orders WHERE userId = ? AND id <= ?";
+
+    private static final RowMapper<Order> ORDER_ROW_MAPPER = (rs, rowNum) -> {
+        Order order = new Order();
+        order.setId(rs.getLong("id"));
+        order.setUserId(rs.getString("userId"));
+        order.setProductId(rs.getString("productId"));
+        order.setQuantity(rs.getInt("quantity"));
+        order.setAmountPaise(rs.getLong("amountPaise"));
+        order.setOrderTime(rs.getTimestamp("orderTime").toInstant());
+        return order;
+    };
+
+    private final ShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SalesRollupService salesRollup;
+
+    public ShardRebalancer(ShardRouter router, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           SalesRollupService salesRollup) {
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.salesRollup = salesRollup;
+    }
+
+    /**
+     * Move all misplaced orders to the shard that owns their user
+     *
+     * @param dryRun Only count the misplaced users and orders, do not move anything
+     * @return What was moved, or would have been in a dry run
+     */
+    public synchronized RebalanceReport rebalance(boolean dryRun) {
+        long usersMoved = 0;
+        long ordersMoved = 0;
+        for (int source = 0; source < router.shardCount(); source++) {
+            int shard = source;
+            String lastUserId = "";
+            List<String> users;
+            // Page through the users by key, so memory does not grow with the number of users
+            do {
+                String after = lastUserId;
+                users = router.onShard(shard, () ->
+                        jdbcTemplate.queryForList(USERS_SQL, String.class, after, USER_PAGE_SIZE));
+                for (String userId : users) {
+                    int target = router.shardFor(userId);
+                    if (target == shard) {
+                        continue;
+                    }
+                    usersMoved++;
+                    ordersMoved += dryRun ? countOrders(shard, userId) : moveUser(userId, shard, target);
+                }
+                if (!users.isEmpty()) {
+                    lastUserId = users.get(users.size() - 1);
+                }
+            } while (users.size() == USER_PAGE_SIZE);
+        }
+        List<Long> ordersPerShard = router.scatter(shard ->
+                jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Long.class));
+        if (!dryRun && usersMoved > 0) {
+            logger.info("Rebalanced {} orders of {} users across {} shards", ordersMoved, usersMoved, router.shardCount());
+        }
+        return new RebalanceReport(dryRun, ordersPerShard, usersMoved, ordersMoved);
+    }
+
+    private long countOrders(int shard, String userId) {
+        Long count = router.onShard(shard, () ->
+                jdbcTemplate.queryForObject("SELECT count(*) FROM orders WHERE userId = ?", Long.class, userId));
+        return count != null ? count : 0;
+    }
+
+    private int moveUser(String userId, int source, int target) {
+        List<Order> orders = router.onShard(source, () ->
+                jdbcTemplate.query(SELECT_ORDERS_SQL, ORDER_ROW_MAPPER, userId));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        long firstId = orders.get(0).getId();
+        long lastId = orders.get(orders.size() - 1).getId();
+
+        router.onShard(target, () -> {
+            salesRollup.initWatermark();
+            return transactionTemplate.execute(status -> {
+                Set<Long> copied = new HashSet<>(jdbcTemplate.queryForList(
+                        COPIED_IDS_SQL, Long.class, userId, firstId, lastId));
+                List<Order> copies = orders.stream().filter(order -> !copied.contains(order.getId())).toList();
+                jdbcTemplate.batchUpdate(COPY_ORDER_SQL, copies.stream()
+                        .map(order -> new Object[] {order.getId(), order.getUserId(), order.getProductId(),
+                                order.getQuantity(), order.getAmountPaise(),
+                                Timestamp.from(order.getOrderTime())})
+                        .toList());
+                salesRollup.adjust(target, copies, 1);
+                return null;
+            });
+        });
+        router.onShard(source, () -> {
+            salesRollup.initWatermark();
+            return transactionTemplate.execute(status -> {
+                jdbcTemplate.update(DELETE_ORDERS_SQL, userId, lastId);
+                salesRollup.adjust(source, orders, -1);
+                return null;
+            });
+        });
+        return orders.size();
+    }
+}
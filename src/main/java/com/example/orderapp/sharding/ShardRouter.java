@@ -0,0 +1,142 @@
+package com.example.orderapp.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Shard Router
+ *
+ * Entry point for running order persistence on the right shard:
+ * - onShardOf routes work for a single user by the consistent hash of their ID
+ * - scatter runs work on every shard in parallel and gathers the results,
+ *   for admin and aggregate queries
+ */
+@Component
+public class ShardRouter {
+
+    private final ConsistentHashRing ring;
+
+    private final ExecutorService scatterPool;
+
+    public ShardRouter(ShardingProperties properties) {
+        int shardCount = Math.max(1, properties.getShards().size());
+        this.ring = new ConsistentHashRing(shardCount, properties.getVirtualNodes());
+        this.scatterPool = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount, r -> {
+                    Thread thread = new Thread(r, "shard-scatter");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Get the number of configured shards
+     * @return The shard count, at least 1
+     */
+    public int shardCount() {
+        return ring.getShardCount();
+    }
+
+    /**
+     * Find the shard that owns a user's orders
+     *
+     * @param userId The Firebase user ID
+     * @return The shard index
+     */
+    public int shardFor(String userId) {
+        return ring.shardFor(userId);
+    }
+
+    /**
+     * Get the first order ID of the range a shard issues IDs from
+     *
+     * Shard k issues IDs above k * 2^48 (see ShardSchemaInitializer); the range
+     * of shard k ends where the range of shard k + 1 starts.
+     *
+     * @param shard The shard index
+     * @return The exclusive lower bound of the shard's ID range
+     */
+    public static long idRangeStart(int shard) {
+        return (long) shard << ShardSchemaInitializer.SHARD_ID_BITS;
+    }
+
+    /**
+     * Run work on the shard that owns a user's orders
+     *
+     * @param userId The Firebase user ID
+     * @param work The work to run
+     * @return The result of the work
+     */
+    public <T> T onShardOf(String userId, Supplier<T> work) {
+        return onShard(shardFor(userId), work);
+    }
+
+    /**
+     * Run work on a specific shard
+     *
+     * A transaction is bound to the shard it started on, so switching shards
+     * inside one would silently keep using the old connection; that is rejected.
+     *
+     * @param shard The shard index
+     * @param work The work to run
+     * @return The result of the work
+     * @throws IllegalStateException if called inside a transaction on another shard
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (shard != ShardContext.current() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard
+                    + " inside a transaction on shard " + ShardContext.current());
+        }
+        return ShardContext.call(shard, work);
+    }
+
+    /**
+     * Run work on every shard in parallel and collect the results
+     *
+     * @param work The work to run, given the shard index
+     * @return The results, indexed by shard
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (scatterPool == null) {
+            return List.of(ShardContext.call(0, () -> work.apply(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount());
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            futures.add(scatterPool.submit(() -> ShardContext.call(target, () -> work.apply(target))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterPool != null) {
+            scatterPool.shutdownNow();
+        }
+    }
+}
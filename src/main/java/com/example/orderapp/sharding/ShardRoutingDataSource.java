@@ -0,0 +1,32 @@
+package com.example.orderapp.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Shard Routing DataSource
+ *
+ * The application's DataSource: hands out connections from the shard
+ * selected by the current ShardContext. Closing it closes the pools of all shards.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Close the connection pools of all shards
+     *
+     * @throws Exception if a pool fails to close
+     */
+    public void close() throws Exception {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
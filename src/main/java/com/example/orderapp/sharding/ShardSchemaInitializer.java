@@ -0,0 +1,90 @@
+package com.example.orderapp.sharding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shard Schema Initializer
+ *
+ * Hibernate only manages the schema of the connection it boots on, which is
+ * shard 0. At startup this component:
+ * - applies spring.jpa.hibernate.ddl-auto=update to every other shard, using
+ *   the metadata captured by the ShardSchemaIntegrator
+ * - moves the orders identity of shard k to start at k * 2^48, so order IDs
+ *   stay unique across shards and rows can be moved between shards with
+ *   their IDs unchanged
+ */
+@Component
+public class ShardSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    /**
+     * Width of the order ID range reserved for each shard
+     */
+    static final int SHARD_ID_BITS = 48;
+
+    private final ShardSchemaIntegrator integrator;
+    private final ShardRouter router;
+    private final JdbcTemplate jdbcTemplate;
+    private final String ddlAuto;
+
+    /**
+     * The EntityManagerFactory is injected only so that it, and with it the
+     * schema of shard 0, is initialized first
+     */
+    public ShardSchemaInitializer(ShardSchemaIntegrator integrator,
+                                  ShardRouter router,
+                                  JdbcTemplate jdbcTemplate,
+                                  EntityManagerFactory entityManagerFactory,
+                                  @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.integrator = integrator;
+        this.router = router;
+        this.jdbcTemplate = jdbcTemplate;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (router.shardCount() == 1) {
+            return;
+        }
+        for (int shard = 1; shard < router.shardCount(); shard++) {
+            int target = shard;
+            ShardContext.run(target, () -> {
+                if ("update".equals(ddlAuto)) {
+                    updateSchema();
+                }
+                reserveIdRange(target);
+            });
+        }
+    }
+
+    private void updateSchema() {
+        Map<String, Object> settings = new HashMap<>(integrator.getSessionFactory().getProperties());
+        settings.put("hibernate.hbm2ddl.auto", "update");
+        SchemaManagementToolCoordinator.process(integrator.getMetadata(),
+                integrator.getSessionFactory().getServiceRegistry(), settings, action -> { });
+    }
+
+    /**
+     * Restart the orders identity at the shard's range unless it already issues IDs from it
+     */
+    private void reserveIdRange(int shard) {
+        long base = ShardRouter.idRangeStart(shard);
+        Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM orders", Long.class);
+        if (maxId == null || maxId < base) {
+            jdbcTemplate.execute("ALTER TABLE orders ALTER COLUMN id RESTART WITH " + (base + 1));
+            logger.info("Order IDs on shard {} now start at {}", shard, base + 1);
+        }
+    }
+}
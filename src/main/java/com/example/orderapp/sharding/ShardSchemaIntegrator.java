@@ -0,0 +1,39 @@
+package com.example.orderapp.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Hibernate integrator that captures the boot metadata, so the schema of the
+ * additional shards can be managed the same way Hibernate manages shard 0.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private volatile Metadata metadata;
+
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.sessionFactory = null;
+    }
+
+    Metadata getMetadata() {
+        return metadata;
+    }
+
+    SessionFactoryImplementor getSessionFactory() {
+        return sessionFactory;
+    }
+}
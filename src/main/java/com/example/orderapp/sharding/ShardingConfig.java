@@ -0,0 +1,106 @@
+package com.example.orderapp.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sharding Configuration
+ *
+ * Replaces the auto-configured DataSource with a ShardRoutingDataSource that
+ * holds one connection pool per shard. JPA, the JdbcTemplate and the
+ * transaction manager all sit on top of it, so the repositories need no
+ * changes: the ShardContext of the calling thread decides which database
+ * they talk to.
+ *
+ * Every pool is configured from spring.datasource.hikari.*, as Spring Boot
+ * does for the single DataSource it would otherwise create.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Create the routing DataSource over all shards
+     *
+     * @param properties The configured shards
+     * @param dataSourceProperties spring.datasource.*, used when no shards are configured
+     * @param environment Source of the spring.datasource.hikari.* pool settings
+     * @return The routing DataSource
+     */
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(ShardingProperties properties,
+                                             DataSourceProperties dataSourceProperties,
+                                             Environment environment) {
+        Binder binder = Binder.get(environment);
+        Map<Object, Object> targets = new HashMap<>();
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            HikariDataSource single = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(single));
+            single.setPoolName("shard-0");
+            targets.put(0, single);
+        } else {
+            for (int i = 0; i < shards.size(); i++) {
+                ShardingProperties.Shard shard = shards.get(i);
+                HikariDataSource pool = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build();
+                binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+                pool.setPoolName("shard-" + i);
+                targets.put(i, pool);
+            }
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(ShardContext.DEFAULT_SHARD));
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    @Bean
+    public ShardSchemaIntegrator shardSchemaIntegrator() {
+        return new ShardSchemaIntegrator();
+    }
+
+    /**
+     * Register the ShardSchemaIntegrator with Hibernate and release connections
+     * after every transaction
+     *
+     * By default a session holds on to its connection until it is closed, and
+     * with open-in-view the session lives for the whole request; the next
+     * transaction would then reuse the first shard's connection regardless of
+     * the ShardContext.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateCustomizer(ShardSchemaIntegrator integrator) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(integrator));
+            hibernateProperties.put("hibernate.connection.handling_mode",
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        };
+    }
+}
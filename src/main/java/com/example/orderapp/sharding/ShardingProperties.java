@@ -0,0 +1,80 @@
+package com.example.orderapp.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding Properties
+ *
+ * Bound from app.sharding.*, for example:
+ * <pre>
+ * app.sharding.shards[0].url=jdbc:postgresql://db0/orders
+ * app.sharding.shards[0].username=postgres
+ * app.sharding.shards[0].password=secret
+ * app.sharding.shards[1].url=jdbc:postgresql://db1/orders
+ * </pre>
+ * When no shards are configured, spring.datasource.* is used as the only shard.
+ * Shards must only ever be appended: a shard's position in the list is its
+ * identity on the hash ring.
+ */
+@ConfigurationProperties("app.sharding")
+public class ShardingProperties {
+
+    /**
+     * Connection settings of a single shard
+     */
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Points per shard on the consistent hash ring
+     */
+    private int virtualNodes = 128;
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.orderapp.config;
+
+import com.example.orderapp.service.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks which exceptions become client errors and that internal messages are not exposed.
+ */
+class GlobalExceptionHandlerTests {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private final ExceptionHandlerMethodResolver resolver =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    @Test
+    void validationErrorsAreBadRequestsWithTheirMessage() throws Exception {
+        ResponseEntity<?> response = handle(new InvalidRequestException("'from' must be before 'to'"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("'from' must be before 'to'", ((Map<?, ?>) response.getBody()).get("message"));
+    }
+
+    @Test
+    void otherIllegalArgumentsAreServerErrorsWithoutDetails() throws Exception {
+        ResponseEntity<?> response = handle(new NumberFormatException("For input string: \"internal\""));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("An unexpected error occurred", ((Map<?, ?>) response.getBody()).get("message"));
+    }
+
+    /**
+     * Dispatch to the handler method Spring MVC would pick for the exception
+     */
+    private ResponseEntity<?> handle(Exception ex) throws Exception {
+        Method method = resolver.resolveMethod(ex);
+        return (ResponseEntity<?>) method.invoke(handler, ex,
+                new ServletWebRequest(new MockHttpServletRequest()));
+    }
+}
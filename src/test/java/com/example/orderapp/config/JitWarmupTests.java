@@ -0,0 +1,193 @@
+package com.example.orderapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.orderapp.service.InventoryService;
+import com.example.orderapp.service.ProductCatalog;
+import com.example.orderapp.sharding.ShardContext;
+import com.example.orderapp.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the warm-up against the embedded server on the H2 shards, and against
+ * a stub server to observe the readiness state while it runs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class JitWarmupTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JitWarmup warmup;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Autowired
+    private InventoryService inventory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpServer stub;
+
+    @AfterEach
+    void stopStub() {
+        if (stub != null) {
+            stub.stop(0);
+        }
+    }
+
+    @Test
+    void warmUpRequestsGoThroughTheServerAndAreRolledBack() throws Exception {
+        ShardContext.run(ShardContext.DEFAULT_SHARD, () -> {
+            jdbcTemplate.update("DELETE FROM products");
+            jdbcTemplate.update("INSERT INTO products (productId, name, pricePaise) VALUES ('warmup-milk', 'Milk', 5250)");
+            jdbcTemplate.update("DELETE FROM inventory WHERE productId = 'warmup-milk'");
+            jdbcTemplate.update("INSERT INTO inventory (productId, available) VALUES ('warmup-milk', 5)");
+        });
+        catalog.refresh();
+        inventory.reconcile();
+        long ordersBefore = countOrders();
+
+        // Everything the server logs while the warm-up runs, from any thread
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        rootLogger.addAppender(appender);
+        try {
+            // More iterations than units in stock: every order must be rolled back and its stock released
+            assertEquals(50, warmup.warmUp(URI.create("http://127.0.0.1:" + port)));
+        } finally {
+            rootLogger.detachAppender(appender);
+        }
+
+        List<String> errors = appender.list.stream()
+                .filter(event -> event.getLevel().isGreaterOrEqual(Level.ERROR))
+                .map(ILoggingEvent::getFormattedMessage)
+                .toList();
+        assertTrue(errors.isEmpty(), errors.toString());
+
+        assertEquals(ordersBefore, countOrders());
+        assertEquals(5, inventory.available("warmup-milk"));
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+
+        // The token is only accepted while the warm-up runs
+        mockMvc.perform(get("/api/orders/history").header(JitWarmup.TOKEN_HEADER, "anything"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void readinessIsRefusedUntilTheWarmUpFinishes() throws Exception {
+        List<ReadinessState> published = new CopyOnWriteArrayList<>();
+        List<ReadinessState> seenByRequests = new CopyOnWriteArrayList<>();
+        startStub(Duration.ZERO, published, seenByRequests);
+
+        assertEquals(3, warmup(published, Duration.ofSeconds(10)).warmUp(stubUri()));
+
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), published);
+        assertFalse(seenByRequests.isEmpty());
+        assertTrue(seenByRequests.stream().allMatch(ReadinessState.REFUSING_TRAFFIC::equals));
+    }
+
+    @Test
+    void readinessIsAcceptedWhenTheWarmUpTimesOut() throws Exception {
+        List<ReadinessState> published = new CopyOnWriteArrayList<>();
+        startStub(Duration.ofSeconds(5), published, new CopyOnWriteArrayList<>());
+
+        long start = System.nanoTime();
+        assertEquals(-1, warmup(published, Duration.ofMillis(200)).warmUp(stubUri()));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(4).toNanos());
+        assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), published);
+    }
+
+    private JitWarmup warmup(List<ReadinessState> published, Duration timeout) {
+        ApplicationEventPublisher publisher = event -> {
+            if (event instanceof AvailabilityChangeEvent<?> change && change.getState() instanceof ReadinessState state) {
+                published.add(state);
+            }
+        };
+        return new JitWarmup(catalog, inventory, objectMapper, transactionTemplate, router, publisher,
+                true, 3, timeout);
+    }
+
+    /**
+     * Start a server that answers every request with 200 after a delay,
+     * recording the last published readiness state
+     */
+    private void startStub(Duration delay, List<ReadinessState> published, List<ReadinessState> seenByRequests)
+            throws Exception {
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stub.createContext("/", exchange -> {
+            seenByRequests.add(published.get(published.size() - 1));
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+    }
+
+    private URI stubUri() {
+        return URI.create("http://127.0.0.1:" + stub.getAddress().getPort());
+    }
+
+    private long countOrders() {
+        return router.scatter(shard -> jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+}
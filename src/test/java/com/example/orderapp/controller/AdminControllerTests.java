@@ -0,0 +1,35 @@
+package com.example.orderapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exercises the admin import endpoint's parameter handling through the full MVC stack.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class AdminControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unknownImportFormatsAreRejectedWithTheAllowedValues() throws Exception {
+        mockMvc.perform(post("/api/admin/orders/import")
+                        .param("format", "xml")
+                        .content("")
+                        .with(user("admin")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported format, expected one of: csv, ndjson"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.orderapp.controller;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.repository.OrderRepository;
+import com.example.orderapp.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exercises the order endpoints through the full MVC stack against the
+ * embedded H2 shards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class OrderControllerTests {
+
+    private static final String USER_ID = "controller-user";
+
+    private static final Instant T0 = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private ShardRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router.onShardOf(USER_ID, () -> {
+            repository.deleteAll(repository.findByUserId(USER_ID));
+            for (int i = 0; i < 3; i++) {
+                Order order = new Order();
+                order.setUserId(USER_ID);
+                order.setProductId(i == 1 ? "bread" : "milk");
+                order.setQuantity(1);
+                order.setAmountPaise(1000L * (i + 1));
+                order.setOrderTime(T0.plusSeconds(60L * i));
+                repository.save(order);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void searchFiltersSortsAndPagesOnTheServer() throws Exception {
+        mockMvc.perform(get("/api/orders/history/search")
+                        .param("productId", "milk")
+                        .param("minAmount", "5")
+                        .param("sortBy", "amount")
+                        .param("direction", "asc")
+                        .param("size", "1")
+                        .with(user(USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].amount").value(10.0))
+                .andExpect(jsonPath("$.content[0].userId").value(USER_ID));
+
+        mockMvc.perform(get("/api/orders/history/search")
+                        .param("from", "2024-05-01T00:01:00Z")
+                        .param("to", "2024-05-01T00:02:00Z")
+                        .with(user(USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].productId").value("bread"));
+    }
+
+    @Test
+    void singleOrderLookupRejectsMalformedIdsAndHidesOtherUsersOrders() throws Exception {
+        Long id = router.onShardOf(USER_ID, () -> repository.findByUserId(USER_ID).get(0).getId());
+
+        mockMvc.perform(get("/api/orders/{id}", id).with(user(USER_ID)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+        mockMvc.perform(get("/api/orders/abc").with(user(USER_ID)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("'id'")));
+        mockMvc.perform(get("/api/orders/{id}", id).with(user("someone-else")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void malformedSearchParametersAreRejectedWith400() throws Exception {
+        mockMvc.perform(get("/api/orders/history/search").param("from", "abc").with(user(USER_ID)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("'from'")));
+        mockMvc.perform(get("/api/orders/history/search").param("minAmount", "lots").with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/history/search").param("page", "first").with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidSearchParametersAreRejectedWith400() throws Exception {
+        mockMvc.perform(get("/api/orders/history/search").param("sortBy", "userId").with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/history/search").param("size", "101").with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/history/search")
+                        .param("from", "2024-05-02T00:00:00Z")
+                        .param("to", "2024-05-01T00:00:00Z")
+                        .with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/history/search")
+                        .param("minAmount", "20")
+                        .param("maxAmount", "10")
+                        .with(user(USER_ID)))
+                .andExpect(status().isBadRequest());
+    }
+}
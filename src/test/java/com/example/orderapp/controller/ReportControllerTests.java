@@ -0,0 +1,109 @@
+package com.example.orderapp.controller;
+
+import com.example.orderapp.sharding.ShardContext;
+import com.example.orderapp.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serves the sales reports from rollup rows spread over the embedded H2 shards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class ReportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router.scatter(shard -> jdbcTemplate.update("DELETE FROM daily_sales_rollup"));
+        insertRollup(0, "2024-05-01", "milk", 2, 3, 15750);
+        insertRollup(1, "2024-05-01", "milk", 1, 1, 5250);
+        insertRollup(1, "2024-05-01", "bread", 1, 2, 8000);
+        insertRollup(2, "2024-05-02", "milk", 4, 4, 21000);
+        insertRollup(2, "2024-06-01", "milk", 9, 9, 47250);
+    }
+
+    @Test
+    void dailySalesMergesTheRowsOfAllShards() throws Exception {
+        mockMvc.perform(get("/api/reports/daily-sales")
+                        .param("from", "2024-05-01")
+                        .param("to", "2024-05-31")
+                        .with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].salesDay").value("2024-05-01"))
+                .andExpect(jsonPath("$[0].productId").value("bread"))
+                .andExpect(jsonPath("$[1].productId").value("milk"))
+                .andExpect(jsonPath("$[1].orderCount").value(3))
+                .andExpect(jsonPath("$[1].quantitySum").value(4))
+                .andExpect(jsonPath("$[1].amountSum").value(210.0))
+                .andExpect(jsonPath("$[1].amountSumPaise").doesNotExist())
+                .andExpect(jsonPath("$[2].salesDay").value("2024-05-02"));
+
+        mockMvc.perform(get("/api/reports/daily-sales")
+                        .param("from", "2024-05-01")
+                        .param("to", "2024-05-01")
+                        .param("productId", "bread")
+                        .with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].amountSum").value(80.0));
+    }
+
+    @Test
+    void dailyTotalsSumAllProductsPerDay() throws Exception {
+        mockMvc.perform(get("/api/reports/daily-totals")
+                        .param("from", "2024-05-01")
+                        .param("to", "2024-05-02")
+                        .with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].salesDay").value("2024-05-01"))
+                .andExpect(jsonPath("$[0].orderCount").value(4))
+                .andExpect(jsonPath("$[0].quantitySum").value(6))
+                .andExpect(jsonPath("$[0].amountSum").value(290.0))
+                .andExpect(jsonPath("$[0].amountSumPaise").doesNotExist())
+                .andExpect(jsonPath("$[1].orderCount").value(4));
+    }
+
+    @Test
+    void invalidRangesAreRejectedWith400() throws Exception {
+        mockMvc.perform(get("/api/reports/daily-sales").param("from", "2024-05-02").param("to", "2024-05-01")
+                        .with(user("admin")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/daily-totals").param("from", "2024-01-01").param("to", "2025-01-01")
+                        .with(user("admin")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/daily-totals").param("from", "yesterday").param("to", "2024-05-01")
+                        .with(user("admin")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void insertRollup(int shard, String day, String productId, long orders, long quantity, long amountPaise) {
+        ShardContext.run(shard, () -> jdbcTemplate.update("INSERT INTO daily_sales_rollup "
+                + "(salesDay, productId, orderCount, quantitySum, amountSumPaise) VALUES (?, ?, ?, ?, ?)",
+                Date.valueOf(day), productId, orders, quantity, amountPaise));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.orderapp.json;
+
+import com.example.orderapp.model.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serialization throughput and payload size of an order history page in the
+ * standard and the compact JSON format. The mappers are configured the way
+ * Spring Boot configures them. Run longer with -Dbenchmark.iterations=2000.
+ */
+class OrderJsonBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJsonBenchmarkTests.class);
+
+    private static final int ORDERS = 1_000;
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+
+    private final ObjectMapper standard = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper compact = standard.copy().registerModule(OrderCompactSerializer.module());
+
+    @Test
+    void compactFormatIsSmallerAndFaster() throws Exception {
+        List<Order> orders = history();
+
+        long standardNanos = time(standard, orders);
+        long compactNanos = time(compact, orders);
+        int standardBytes = standard.writeValueAsBytes(orders).length;
+        int compactBytes = compact.writeValueAsBytes(orders).length;
+
+        logger.info("Order JSON benchmark: standard {} orders/s, {} bytes/order; compact {} orders/s, {} bytes/order",
+                Math.round(ORDERS * ITERATIONS * 1e9 / standardNanos), standardBytes / ORDERS,
+                Math.round(ORDERS * ITERATIONS * 1e9 / compactNanos), compactBytes / ORDERS);
+        assertTrue(compactBytes < standardBytes);
+    }
+
+    @Test
+    void compactFormatCarriesTheSameOrder() throws Exception {
+        Order order = history().get(7);
+
+        JsonNode json = compact.readTree(compact.writeValueAsBytes(order));
+        assertEquals(order.getId().longValue(), json.get("id").asLong());
+        assertEquals(order.getUserId(), json.get("userId").asText());
+        assertEquals(order.getQuantity(), json.get("quantity").asInt());
+        assertEquals(order.getAmountPaise(), json.get("amountPaise").asLong());
+        assertEquals(order.getOrderTime().toEpochMilli(), json.get("orderTime").asLong());
+
+        JsonNode legacy = standard.readTree(standard.writeValueAsBytes(order));
+        assertEquals(order.getAmount(), legacy.get("amount").asDouble());
+        assertEquals(order.getOrderTime().toString(), legacy.get("orderTime").asText());
+        assertTrue(legacy.get("amountPaise") == null);
+    }
+
+    @Test
+    void compactFormatIsOnlyUsedWhenRequested() throws Exception {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(standard);
+        CompactJsonConfig.registerCompactFormat(converter);
+        assertEquals(MediaType.APPLICATION_JSON, converter.getSupportedMediaTypes(ArrayList.class).get(0));
+
+        MockHttpOutputMessage compactOutput = new MockHttpOutputMessage();
+        converter.write(history().get(0), CompactJsonConfig.COMPACT_JSON, compactOutput);
+        assertTrue(compactOutput.getBodyAsString().contains("\"amountPaise\""));
+
+        MockHttpOutputMessage standardOutput = new MockHttpOutputMessage();
+        converter.write(history().get(0), MediaType.APPLICATION_JSON, standardOutput);
+        assertTrue(standardOutput.getBodyAsString().contains("\"amount\""));
+        assertTrue(!standardOutput.getBodyAsString().contains("\"amountPaise\""));
+    }
+
+    private static long time(ObjectMapper mapper, List<Order> orders) throws Exception {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            mapper.writeValueAsBytes(orders);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(orders);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<Order> history() {
+        Instant base = Instant.parse("2024-05-01T08:00:00.123456Z");
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setId(1_000_000L + i);
+            order.setUserId("Xk3LmQ9wR2bT7vYp1NcZ8aHs4Df" + (i % 10));
+            order.setProductId("product-" + (i % 50));
+            order.setQuantity(1 + i % 5);
+            order.setAmountPaise(5250L * (1 + i % 5));
+            order.setOrderTime(base.plusSeconds(37L * i));
+            orders.add(order);
+        }
+        return orders;
+    }
+}
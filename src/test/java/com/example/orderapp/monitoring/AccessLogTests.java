@@ -0,0 +1,87 @@
+package com.example.orderapp.monitoring;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for which requests the access log writes and the line format.
+ */
+class AccessLogTests {
+
+    private static final long FAST = 1_000_000;
+
+    private static final long SLOW = 600_000_000;
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger("access");
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/history");
+
+    private RequestTimings timings;
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        accessLogger.addAppender(appender);
+        timings = RequestTimings.begin();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+        accessLogger.detachAppender(appender);
+    }
+
+    @Test
+    void fastSuccessfulRequestsAreNotLoggedWhenNotSampled() {
+        new AccessLog(0, 500).log(request, 200, timings, FAST);
+        new AccessLog(0, 500).log(request, 404, timings, FAST);
+
+        assertTrue(lines().isEmpty());
+    }
+
+    @Test
+    void serverErrorsAreAlwaysLogged() {
+        new AccessLog(0, 500).log(request, 503, timings, FAST);
+
+        assertEquals(1, lines().size());
+        assertTrue(lines().get(0).contains(" status=503 "));
+    }
+
+    @Test
+    void slowRequestsAreAlwaysLogged() {
+        new AccessLog(0, 500).log(request, 200, timings, SLOW);
+        new AccessLog(0, 500).log(request, 200, timings, 500_000_000);
+
+        assertEquals(2, lines().size());
+    }
+
+    @Test
+    void sampledRequestsAreLoggedWithTheirPhases() {
+        RequestTimings.record(RequestTimings.Phase.SERVICE, System.nanoTime() - 2_500_000);
+        RequestTimings.countStatement();
+
+        new AccessLog(1, 500).log(request, 200, timings, 3_000_000);
+
+        assertEquals(1, lines().size());
+        assertTrue(lines().get(0).matches(
+                "method=GET path=/api/orders/history status=200 total_ms=3\\.0 service_ms=\\d+\\.\\d db_statements=1"),
+                lines().get(0));
+    }
+
+    private List<String> lines() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+}
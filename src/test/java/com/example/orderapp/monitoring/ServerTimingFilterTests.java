@@ -0,0 +1,106 @@
+package com.example.orderapp.monitoring;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the Server-Timing header on real requests and that it is set before
+ * the response is committed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class ServerTimingFilterTests {
+
+    /**
+     * Zero or more "name;dur=X.Y" metrics, db with a statement count, then the total
+     */
+    private static final String HEADER_FORMAT =
+            "^([a-z][a-z-]*;dur=\\d+\\.\\d(;desc=\"\\d+ statements\")?, )*total;dur=\\d+\\.\\d$";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void headerBreaksDownTheRequestByPhase() throws Exception {
+        mockMvc.perform(get("/api/orders/history").with(user("timing-user")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.HEADER, matchesPattern(HEADER_FORMAT)))
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("service;dur=")))
+                .andExpect(header().string(ServerTimingFilter.HEADER,
+                        matchesPattern(".*db;dur=\\d+\\.\\d;desc=\"[1-9]\\d* statements\".*")));
+    }
+
+    @Test
+    void rejectedRequestsStillReportServiceTime() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":\"milk\",\"quantity\":0}")
+                        .with(user("timing-user")))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(ServerTimingFilter.HEADER, matchesPattern(HEADER_FORMAT)))
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("service;dur=")));
+    }
+
+    @Test
+    void headerIsSetBeforeALargeBodyCommitsTheResponse() throws Exception {
+        HeaderRecordingResponse response = new HeaderRecordingResponse();
+        new ServerTimingFilter(new AccessLog(0, Long.MAX_VALUE / 1_000_000)).doFilter(
+                new MockHttpServletRequest("GET", "/large"), response, (req, res) -> {
+                    // More than the buffer, so the response is committed while writing
+                    res.getOutputStream().write(new byte[4 * response.getBufferSize()]);
+                    assertTrue(res.isCommitted());
+                });
+
+        assertEquals(List.of(false), response.committedWhenSet);
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).matches(HEADER_FORMAT));
+    }
+
+    @Test
+    void headerIsSetBeforeSendErrorCommitsTheResponse() throws Exception {
+        HeaderRecordingResponse response = new HeaderRecordingResponse();
+        new ServerTimingFilter(new AccessLog(0, Long.MAX_VALUE / 1_000_000)).doFilter(
+                new MockHttpServletRequest("GET", "/missing"), response,
+                (req, res) -> ((HttpServletResponse) res).sendError(404));
+
+        assertEquals(404, response.getStatus());
+        assertEquals(List.of(false), response.committedWhenSet);
+        assertTrue(response.getHeader(ServerTimingFilter.HEADER).matches(HEADER_FORMAT));
+    }
+
+    /**
+     * Records whether the response was already committed each time the header was set
+     */
+    private static final class HeaderRecordingResponse extends MockHttpServletResponse {
+        private final List<Boolean> committedWhenSet = new ArrayList<>();
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (ServerTimingFilter.HEADER.equals(name)) {
+                committedWhenSet.add(isCommitted());
+            }
+            super.setHeader(name, value);
+        }
+    }
+}
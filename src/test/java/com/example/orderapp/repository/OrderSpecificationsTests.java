@@ -0,0 +1,107 @@
+package com.example.orderapp.repository;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the history search predicates against an embedded H2 shard.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class OrderSpecificationsTests {
+
+    private static final String USER_ID = "specifications";
+
+    private static final Instant T0 = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private ShardRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router.onShardOf(USER_ID, () -> {
+            repository.deleteAll(repository.findByUserId(USER_ID));
+            repository.save(order(USER_ID, "milk", 29, T0));
+            repository.save(order(USER_ID, "bread", 4000, T0.plusSeconds(60)));
+            repository.save(order(USER_ID, "milk", 10550, T0.plusSeconds(120)));
+            return null;
+        });
+        router.onShardOf("someone-else", () -> repository.save(order("someone-else", "milk", 29, T0)));
+    }
+
+    @Test
+    void absentFiltersAddNoRestriction() {
+        assertNull(OrderSpecifications.forProduct(null));
+        assertNull(OrderSpecifications.forProduct(" "));
+        assertNull(OrderSpecifications.placedFrom(null));
+        assertNull(OrderSpecifications.placedBefore(null));
+        assertNull(OrderSpecifications.amountAtLeast(null));
+        assertNull(OrderSpecifications.amountAtMost(null));
+
+        assertEquals(3, find(OrderSpecifications.forProduct(null)).size());
+    }
+
+    @Test
+    void filtersByProduct() {
+        assertEquals(List.of(29L, 10550L), paise(find(OrderSpecifications.forProduct("milk"))));
+    }
+
+    @Test
+    void timeRangeIncludesItsStartAndExcludesItsEnd() {
+        assertEquals(List.of(29L, 4000L), paise(find(OrderSpecifications.placedFrom(T0)
+                .and(OrderSpecifications.placedBefore(T0.plusSeconds(120))))));
+    }
+
+    @Test
+    void amountBoundsAreInclusiveAndRoundInward() {
+        assertEquals(List.of(29L), paise(find(OrderSpecifications.amountAtMost(0.29))));
+        assertEquals(List.of(), paise(find(OrderSpecifications.amountAtMost(0.289))));
+        assertEquals(List.of(4000L, 10550L), paise(find(OrderSpecifications.amountAtLeast(0.291))));
+        assertEquals(List.of(4000L), paise(find(OrderSpecifications.amountAtLeast(40.0)
+                .and(OrderSpecifications.amountAtMost(105.49)))));
+    }
+
+    @Test
+    void rejectsNonFiniteAmountBounds() {
+        assertThrows(IllegalArgumentException.class, () -> OrderSpecifications.amountAtLeast(Double.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> OrderSpecifications.amountAtMost(Double.POSITIVE_INFINITY));
+    }
+
+    private List<Order> find(Specification<Order> filter) {
+        Specification<Order> spec = Specification.where(OrderSpecifications.belongsTo(USER_ID)).and(filter);
+        return router.onShardOf(USER_ID, () -> repository.findAll(spec));
+    }
+
+    private static List<Long> paise(List<Order> orders) {
+        return orders.stream().map(Order::getAmountPaise).sorted().toList();
+    }
+
+    private static Order order(String userId, String productId, long amountPaise, Instant orderTime) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setProductId(productId);
+        order.setQuantity(1);
+        order.setAmountPaise(amountPaise);
+        order.setOrderTime(orderTime);
+        return order;
+    }
+}
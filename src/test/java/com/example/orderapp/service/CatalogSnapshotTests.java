@@ -0,0 +1,96 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lookups in the open-addressing product table of a catalog snapshot.
+ */
+class CatalogSnapshotTests {
+
+    @Test
+    void emptySnapshotKnowsNoProducts() {
+        CatalogSnapshot empty = CatalogSnapshot.empty();
+
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getVersion());
+        assertNull(empty.getLoadedAt());
+        assertTrue(empty.productIds().isEmpty());
+        assertEquals(CatalogSnapshot.UNKNOWN, empty.priceOf("milk"));
+        assertEquals(CatalogSnapshot.UNKNOWN, empty.priceOf(null));
+
+        CatalogSnapshot noProducts = CatalogSnapshot.of(List.of(), 1);
+        assertEquals(0, noProducts.size());
+        assertEquals(CatalogSnapshot.UNKNOWN, noProducts.priceOf("milk"));
+    }
+
+    @Test
+    void findsEveryProductOfALargeCatalog() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            products.add(product("product-" + i, i));
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.of(products, 7);
+
+        assertEquals(10_000, snapshot.size());
+        assertEquals(7, snapshot.getVersion());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, snapshot.priceOf("product-" + i));
+        }
+        assertEquals(CatalogSnapshot.UNKNOWN, snapshot.priceOf("product-10000"));
+        assertEquals(10_000, new HashSet<>(snapshot.productIds()).size());
+    }
+
+    @Test
+    void probesPastProductsWithTheSameHashCode() {
+        // "Aa" and "BB" share a hash code, so all of these land in the same slot
+        List<String> colliding = List.of("AaAa", "AaBB", "BBAa");
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < colliding.size(); i++) {
+            products.add(product(colliding.get(i), (i + 1) * 100L));
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.of(products, 1);
+
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals((i + 1) * 100L, snapshot.priceOf(colliding.get(i)));
+        }
+        assertEquals(CatalogSnapshot.UNKNOWN, snapshot.priceOf("BBBB"));
+    }
+
+    @Test
+    void laterDuplicatesReplaceEarlierOnes() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(
+                List.of(product("milk", 5000), product("bread", 4000), product("milk", 5250)), 1);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(5250, snapshot.priceOf("milk"));
+        assertEquals(2, snapshot.productIds().size());
+    }
+
+    @Test
+    void pricesAreServedInExactPaise() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(
+                product("a", 7), product("b", 29), product("c", 0), product("d", 9_007_199_254_740_993L)), 1);
+
+        assertEquals(7, snapshot.priceOf("a"));
+        assertEquals(29, snapshot.priceOf("b"));
+        assertEquals(0, snapshot.priceOf("c"));
+        assertEquals(9_007_199_254_740_993L, snapshot.priceOf("d"));
+    }
+
+    private static Product product(String productId, long pricePaise) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setName(productId);
+        product.setPricePaise(pricePaise);
+        return product;
+    }
+}
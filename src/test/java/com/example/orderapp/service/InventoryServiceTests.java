@@ -0,0 +1,61 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.InventoryItem;
+import com.example.orderapp.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservations against the in-memory stock levels, with the inventory table
+ * and the flush mocked out.
+ */
+class InventoryServiceTests {
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private InventoryService inventory;
+
+    @BeforeEach
+    void setUp() {
+        InventoryItem milk = new InventoryItem();
+        milk.setProductId("milk");
+        milk.setAvailable(10);
+        when(inventoryRepository.findAll()).thenReturn(List.of(milk));
+
+        inventory = new InventoryService(inventoryRepository, jdbcTemplate, transactionTemplate);
+        inventory.reconcile();
+    }
+
+    @Test
+    void reservationsComeOutOfTheAvailableStock() {
+        inventory.reserve("milk", 3);
+
+        assertEquals(7, inventory.available("milk"));
+        assertThrows(InsufficientStockException.class, () -> inventory.reserve("milk", 8));
+        assertEquals(7, inventory.available("milk"));
+    }
+
+    @Test
+    void productsWithoutAnInventoryRowAreRejectedAndReserveNothing() {
+        assertThrows(InsufficientStockException.class, () -> inventory.reserve("eggs", 1));
+
+        assertEquals(-1, inventory.available("eggs"));
+        assertEquals(10, inventory.available("milk"));
+        inventory.flush();
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+    }
+}
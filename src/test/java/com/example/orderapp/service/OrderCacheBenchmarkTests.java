@@ -0,0 +1,135 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.sharding.ShardContext;
+import com.example.orderapp.sharding.ShardRouter;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency comparison between single-order lookups served from the
+ * second-level cache and lookups that bypass it and hit the database.
+ *
+ * Runs against the embedded H2 shards; every lookup uses a fresh
+ * EntityManager so the persistence context never answers it. Increase the
+ * number of lookups with -Dbenchmark.lookups=200000.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class OrderCacheBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCacheBenchmarkTests.class);
+
+    private static final int ORDERS = 200;
+
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 20_000);
+
+    private static final String USER_ID = "cache-benchmark";
+
+    private static final Map<String, Object> BYPASS_CACHE =
+            Map.of("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Autowired
+    private InventoryService inventory;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cachedLookupsSkipTheDatabase() {
+        ShardContext.run(ShardContext.DEFAULT_SHARD, () -> {
+            jdbcTemplate.update("DELETE FROM products WHERE productId = 'cache-benchmark-product'");
+            jdbcTemplate.update("INSERT INTO products (productId, name, pricePaise) VALUES ('cache-benchmark-product', 'Bread', 4000)");
+            jdbcTemplate.update("DELETE FROM inventory WHERE productId = 'cache-benchmark-product'");
+            jdbcTemplate.update("INSERT INTO inventory (productId, available) VALUES ('cache-benchmark-product', 1000000)");
+        });
+        catalog.refresh();
+        inventory.reconcile();
+        List<Long> ids = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setProductId("cache-benchmark-product");
+            order.setQuantity(1 + i % 3);
+            ids.add(orderService.saveOrder(USER_ID, order).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("orders");
+        int shard = router.shardFor(USER_ID);
+
+        // Warm up both paths so neither pays for class loading or JIT compilation
+        lookUp(shard, ids, LOOKUPS / 10, null);
+        lookUp(shard, ids, LOOKUPS / 10, BYPASS_CACHE);
+
+        long loadsBefore = statistics.getEntityLoadCount();
+        long hitsBefore = region.getHitCount();
+        long uncachedNanos = lookUp(shard, ids, LOOKUPS, BYPASS_CACHE);
+        assertEquals(hitsBefore, region.getHitCount());
+        assertTrue(statistics.getEntityLoadCount() - loadsBefore >= LOOKUPS);
+
+        loadsBefore = statistics.getEntityLoadCount();
+        long cachedNanos = lookUp(shard, ids, LOOKUPS, null);
+        assertEquals(LOOKUPS, region.getHitCount() - hitsBefore);
+        assertEquals(loadsBefore, statistics.getEntityLoadCount());
+
+        logger.info("Order lookup benchmark, {} lookups: cached {} us, uncached {} us per lookup",
+                LOOKUPS, String.format("%.2f", cachedNanos / 1000.0 / LOOKUPS),
+                String.format("%.2f", uncachedNanos / 1000.0 / LOOKUPS));
+    }
+
+    /**
+     * Look up orders round robin, each in its own EntityManager
+     *
+     * @return The elapsed time in nanoseconds
+     */
+    private long lookUp(int shard, List<Long> ids, int lookups, Map<String, Object> hints) {
+        return ShardContext.call(shard, () -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                try {
+                    Long id = ids.get(i % ids.size());
+                    Order order = hints != null
+                            ? entityManager.find(Order.class, id, hints)
+                            : entityManager.find(Order.class, id);
+                    assertEquals(id, order.getId());
+                } finally {
+                    entityManager.close();
+                }
+            }
+            return System.nanoTime() - start;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.model.Order;
+import com.example.orderapp.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput comparison between the COPY based bulk import and saving one
+ * entity at a time through OrderRepository.
+ *
+ * Needs a real PostgreSQL database, so it only runs when pointed at one:
+ * mvn test -Dtest=OrderImportBenchmarkTests -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/orders
+ *          -Dbenchmark.postgres.username=postgres -Dbenchmark.postgres.password=secret
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+class OrderImportBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderImportBenchmarkTests.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+
+    private static final String USER_PREFIX = "import-benchmark-";
+
+    @Autowired
+    private OrderImportService importService;
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("benchmark.postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("benchmark.postgres.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("benchmark.postgres.password", ""));
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM orders WHERE userId LIKE ?", USER_PREFIX + "%");
+    }
+
+    @Test
+    void copyImportOutperformsJpaSave() throws Exception {
+        Instant base = Instant.parse("2020-01-01T00:00:00Z");
+
+        long jpaStart = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Order order = new Order();
+            order.setUserId(USER_PREFIX + "jpa-" + (i % 500));
+            order.setProductId("product-" + (i % 50));
+            order.setQuantity(1 + i % 5);
+            order.setAmount(10.0 + i % 100);
+            order.setOrderTime(base.plusSeconds(i));
+            repository.save(order);
+        }
+        long jpaNanos = System.nanoTime() - jpaStart;
+
+        StringBuilder csv = new StringBuilder("userId,productId,quantity,amount,orderTime\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(USER_PREFIX).append("copy-").append(i % 500).append(',')
+                    .append("product-").append(i % 50).append(',')
+                    .append(1 + i % 5).append(',')
+                    .append(10.0 + i % 100).append(',')
+                    .append(base.plusSeconds(i)).append('\n');
+        }
+        long copyStart = System.nanoTime();
+        ImportReport report = importService.importOrders(
+                new BufferedReader(new StringReader(csv.toString())), OrderImportService.Format.CSV);
+        long copyNanos = System.nanoTime() - copyStart;
+
+        assertEquals(ROWS, report.getRowsImported());
+        assertEquals(0, report.getRowsRejected());
+
+        double jpaRate = ROWS / (jpaNanos / 1e9);
+        double copyRate = ROWS / (copyNanos / 1e9);
+        logger.info("Order import benchmark, {} rows: JPA save {} rows/s, COPY {} rows/s ({}x)",
+                ROWS, Math.round(jpaRate), Math.round(copyRate), String.format("%.1f", copyRate / jpaRate));
+        assertTrue(copyRate > jpaRate,
+                () -> "COPY import (" + Math.round(copyRate) + " rows/s) is not faster than JPA save ("
+                        + Math.round(jpaRate) + " rows/s)");
+    }
+}
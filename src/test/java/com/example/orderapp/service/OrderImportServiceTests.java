@@ -0,0 +1,163 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.sharding.ShardRouter;
+import com.example.orderapp.sharding.ShardingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parsing, validation and chunking of the bulk order import, against a
+ * mocked COPY connection that records every chunk sent to the database.
+ */
+class OrderImportServiceTests {
+
+    private static final String TIME = "2024-05-01T10:15:30Z";
+
+    private final List<String> copiedChunks = new ArrayList<>();
+
+    private int failingChunk = -1;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CopyIn copyIn = mock(CopyIn.class);
+        StringBuilder current = new StringBuilder();
+        doAnswer(invocation -> {
+            byte[] data = invocation.getArgument(0);
+            current.append(new String(data, invocation.<Integer>getArgument(1),
+                    invocation.<Integer>getArgument(2), StandardCharsets.UTF_8));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        doAnswer(invocation -> {
+            copiedChunks.add(current.toString());
+            current.setLength(0);
+            if (copiedChunks.size() - 1 == failingChunk) {
+                throw new SQLException("duplicate key value violates unique constraint");
+            }
+            return (long) 0;
+        }).when(copyIn).endCopy();
+
+        CopyManager copyManager = mock(CopyManager.class);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        Connection connection = mock(Connection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void csvRowsAreReencodedAsCanonicalCopyRows() throws Exception {
+        ImportReport report = importOrders(OrderImportService.Format.CSV, 100,
+                "userId,productId,quantity,amount,orderTime",
+                "\"user,1\",milk,2,10.5," + TIME,
+                "",
+                "user-2,\"say \"\"cheese\"\"\",1,0.29, " + TIME);
+
+        assertEquals(4, report.getLinesRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(0, report.getRowsRejected());
+        assertEquals(List.of("\"user,1\",\"milk\",2,1050," + TIME + "\n"
+                + "\"user-2\",\"say \"\"cheese\"\"\",1,29," + TIME + "\n"), copiedChunks);
+    }
+
+    @Test
+    void ndjsonRowsAreReencodedAsCanonicalCopyRows() throws Exception {
+        ImportReport report = importOrders(OrderImportService.Format.NDJSON, 100,
+                "{\"userId\":\"user-1\",\"productId\":\"milk\",\"quantity\":3,\"amount\":157.5,\"orderTime\":\"" + TIME + "\"}",
+                "{\"userId\":\"user-2\",\"productId\":\"milk\",\"quantity\":1,\"amount\":0.29,\"orderTime\":\"" + TIME + "\"}");
+
+        assertEquals(2, report.getRowsImported());
+        assertEquals(List.of("\"user-1\",\"milk\",3,15750," + TIME + "\n"
+                + "\"user-2\",\"milk\",1,29," + TIME + "\n"), copiedChunks);
+    }
+
+    @Test
+    void invalidRowsAreRejectedWithTheirLineNumber() throws Exception {
+        ImportReport report = importOrders(OrderImportService.Format.CSV, 100,
+                "user-1,milk,1,10," + TIME,
+                "user-1,milk,1,10",
+                ",milk,1,10," + TIME,
+                "user-1,milk,0,10," + TIME,
+                "user-1,milk,1,-1," + TIME,
+                "user-1,milk,1,NaN," + TIME,
+                "user-1,milk,one,10," + TIME,
+                "user-1,milk,1,10,yesterday",
+                "\"user-1,milk,1,10," + TIME,
+                "user-1,milk,1,10.555," + TIME,
+                "user-1,milk,1,1e30," + TIME);
+
+        assertEquals(1, report.getRowsImported());
+        assertEquals(10, report.getRowsRejected());
+        assertEquals(10, report.getErrors().size());
+        assertEquals("line 2: expected 5 fields but found 4", report.getErrors().get(0));
+        assertEquals("line 9: unterminated quoted field", report.getErrors().get(7));
+        assertEquals("line 10: amount must not have more than 2 decimal places", report.getErrors().get(8));
+        assertEquals("line 11: amount is too large", report.getErrors().get(9));
+
+        ImportReport json = importOrders(OrderImportService.Format.NDJSON, 100, "[1, 2]", "{\"userId\":");
+        assertEquals(2, json.getRowsRejected());
+        assertEquals("line 1: expected a JSON object", json.getErrors().get(0));
+    }
+
+    @Test
+    void keepsAtMostOneHundredErrors() throws Exception {
+        String[] lines = new String[150];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "user-" + i + ",milk,0,10," + TIME;
+        }
+        ImportReport report = importOrders(OrderImportService.Format.CSV, 100, lines);
+
+        assertEquals(150, report.getRowsRejected());
+        assertEquals(100, report.getErrors().size());
+        assertTrue(copiedChunks.isEmpty());
+    }
+
+    @Test
+    void aFailedChunkDoesNotStopTheImport() throws Exception {
+        failingChunk = 1;
+        String[] lines = new String[5];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "user-" + i + ",milk,1,10," + TIME;
+        }
+        ImportReport report = importOrders(OrderImportService.Format.CSV, 2, lines);
+
+        assertEquals(3, copiedChunks.size());
+        assertEquals(3, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(2, report.getChunksCommitted());
+        assertEquals(1, report.getChunksFailed());
+        assertEquals(List.of("lines 3-4: duplicate key value violates unique constraint"), report.getErrors());
+    }
+
+    private ImportReport importOrders(OrderImportService.Format format, int chunkSize, String... lines)
+            throws Exception {
+        OrderImportService service = new OrderImportService(dataSource, new ShardRouter(new ShardingProperties()),
+                new ObjectMapper(), chunkSize);
+        return service.importOrders(new BufferedReader(new StringReader(String.join("\n", lines))), format);
+    }
+}
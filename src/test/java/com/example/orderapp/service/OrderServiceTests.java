@@ -0,0 +1,55 @@
+package com.example.orderapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Validation of the filtered history search parameters. Invalid parameters
+ * are rejected before any dependency is touched, so none are needed here.
+ */
+class OrderServiceTests {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T00:00:00Z");
+
+    private final OrderService service = new OrderService(null, null, null, null);
+
+    @Test
+    void rejectsSortFieldsOutsideTheAllowList() {
+        assertThrows(InvalidRequestException.class, () -> search(null, null, null, null, "userId", 0, 20));
+        assertThrows(InvalidRequestException.class, () -> search(null, null, null, null, "amountPaise", 0, 20));
+    }
+
+    @Test
+    void rejectsPagesOutsideTheLimits() {
+        assertThrows(InvalidRequestException.class, () -> search(null, null, null, null, "orderTime", -1, 20));
+        assertThrows(InvalidRequestException.class, () -> search(null, null, null, null, "orderTime", 0, 0));
+        assertThrows(InvalidRequestException.class, () -> search(null, null, null, null, "amount", 0, 101));
+    }
+
+    @Test
+    void rejectsEmptyTimeRanges() {
+        assertThrows(InvalidRequestException.class, () -> search(NOW, NOW, null, null, "orderTime", 0, 20));
+        assertThrows(InvalidRequestException.class,
+                () -> search(NOW, NOW.minusSeconds(1), null, null, "orderTime", 0, 20));
+    }
+
+    @Test
+    void rejectsInvertedAmountRanges() {
+        assertThrows(InvalidRequestException.class, () -> search(null, null, 10.0, 9.99, "amount", 0, 20));
+    }
+
+    @Test
+    void rejectsAmountBoundsThatAreNotFinite() {
+        assertThrows(InvalidRequestException.class, () -> search(null, null, Double.NaN, null, "amount", 0, 20));
+        assertThrows(InvalidRequestException.class,
+                () -> search(null, null, null, Double.POSITIVE_INFINITY, "amount", 0, 20));
+    }
+
+    private void search(Instant from, Instant to, Double minAmount, Double maxAmount,
+                        String sortBy, int page, int size) {
+        service.searchHistory("user", from, to, null, minAmount, maxAmount, sortBy, false, page, size);
+    }
+}
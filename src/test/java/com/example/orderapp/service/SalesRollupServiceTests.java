@@ -0,0 +1,190 @@
+package com.example.orderapp.service;
+
+import com.example.orderapp.sharding.ShardContext;
+import com.example.orderapp.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the incremental rollup against an embedded H2 shard, including orders
+ * that commit out of ID order and backfilled orders with an old orderTime.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class SalesRollupServiceTests {
+
+    private static final String USER_ID = "rollup-user";
+
+    private static final Instant BACKFILLED_TIME = Instant.now().minus(30, ChronoUnit.DAYS);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private int shard;
+
+    @BeforeEach
+    void setUp() {
+        shard = router.shardFor(USER_ID);
+        router.scatter(s -> {
+            jdbcTemplate.update("DELETE FROM orders");
+            jdbcTemplate.update("DELETE FROM daily_sales_rollup");
+            return jdbcTemplate.update("DELETE FROM rollup_watermark");
+        });
+    }
+
+    @Test
+    void ordersCommittedOutOfIdOrderAreNotSkipped() throws Exception {
+        try (Connection inFlight = ShardContext.call(shard, this::openConnection)) {
+            inFlight.setAutoCommit(false);
+            try (PreparedStatement insert = inFlight.prepareStatement("INSERT INTO orders "
+                    + "(userId, productId, quantity, amountPaise, orderTime) VALUES (?, 'late', 1, 100, ?)")) {
+                insert.setString(1, USER_ID);
+                insert.setTimestamp(2, Timestamp.from(BACKFILLED_TIME));
+                insert.executeUpdate();
+            }
+
+            // Committed with a higher ID while the first order is still in flight
+            insertOrder("late", 2, 200, BACKFILLED_TIME, null);
+            rollup(Duration.ofMinutes(1)).rollUp();
+            assertEquals(0L, watermark());
+            assertTrue(rollupRows().isEmpty());
+
+            inFlight.commit();
+        }
+
+        rollup(Duration.ZERO).rollUp();
+        Map<String, Object> row = rollupRow(BACKFILLED_TIME.atZone(ZoneOffset.UTC).toLocalDate(), "late");
+        assertEquals(2L, ((Number) row.get("orderCount")).longValue());
+        assertEquals(3L, ((Number) row.get("quantitySum")).longValue());
+        assertEquals(300L, ((Number) row.get("amountSumPaise")).longValue());
+    }
+
+    @Test
+    void batchesStopBelowTheFirstUnsettledOrder() {
+        OffsetDateTime anHourAgo = OffsetDateTime.now().minusHours(1);
+        long settled = insertOrder("milk", 1, 5250, BACKFILLED_TIME, anHourAgo);
+        insertOrder("milk", 2, 10500, BACKFILLED_TIME, null);
+        insertOrder("bread", 1, 4000, BACKFILLED_TIME, anHourAgo);
+
+        rollup(Duration.ofMinutes(1)).rollUp();
+        assertEquals(settled, watermark());
+        LocalDate day = BACKFILLED_TIME.atZone(ZoneOffset.UTC).toLocalDate();
+        assertEquals(1, rollupRows().size());
+        assertEquals(1L, ((Number) rollupRow(day, "milk").get("orderCount")).longValue());
+
+        SalesRollupService settledNow = rollup(Duration.ZERO);
+        settledNow.rollUp();
+        settledNow.rollUp();
+        assertEquals(2, rollupRows().size());
+        assertEquals(2L, ((Number) rollupRow(day, "milk").get("orderCount")).longValue());
+        assertEquals(15750L, ((Number) rollupRow(day, "milk").get("amountSumPaise")).longValue());
+        assertEquals(4000L, ((Number) rollupRow(day, "bread").get("amountSumPaise")).longValue());
+    }
+
+    @Test
+    void ordersWithoutACreationTimeDoNotHoldBackTheWatermark() {
+        long withoutCreatedAt = ShardContext.call(shard, () -> {
+            jdbcTemplate.update("INSERT INTO orders (userId, productId, quantity, amountPaise, orderTime, createdAt) "
+                    + "VALUES (?, 'milk', 1, 5250, ?, NULL)", USER_ID, Timestamp.from(BACKFILLED_TIME));
+            return jdbcTemplate.queryForObject("SELECT max(id) FROM orders", Long.class);
+        });
+        long settled = insertOrder("bread", 1, 4000, BACKFILLED_TIME, OffsetDateTime.now().minusHours(1));
+
+        rollup(Duration.ofMinutes(1)).rollUp();
+
+        assertTrue(withoutCreatedAt < settled);
+        assertEquals(settled, watermark());
+        LocalDate day = BACKFILLED_TIME.atZone(ZoneOffset.UTC).toLocalDate();
+        assertEquals(5250L, ((Number) rollupRow(day, "milk").get("amountSumPaise")).longValue());
+        assertEquals(4000L, ((Number) rollupRow(day, "bread").get("amountSumPaise")).longValue());
+    }
+
+    @Test
+    void salesDaysFollowTheConfiguredTimeZone() {
+        insertOrder("milk", 1, 5250, Instant.parse("2024-05-01T20:00:00Z"), null);
+
+        new SalesRollupService(jdbcTemplate, transactionTemplate, router, "Asia/Kolkata", Duration.ZERO, 1000)
+                .rollUp();
+
+        assertEquals(1L, ((Number) rollupRow(LocalDate.parse("2024-05-02"), "milk").get("orderCount")).longValue());
+    }
+
+    private SalesRollupService rollup(Duration settleDelay) {
+        return new SalesRollupService(jdbcTemplate, transactionTemplate, router, "UTC", settleDelay, 1000);
+    }
+
+    /**
+     * Insert a committed order, with a database-assigned createdAt unless one is given
+     *
+     * @return The order ID
+     */
+    private long insertOrder(String productId, int quantity, long amountPaise, Instant orderTime,
+                             OffsetDateTime createdAt) {
+        return ShardContext.call(shard, () -> {
+            if (createdAt == null) {
+                jdbcTemplate.update("INSERT INTO orders (userId, productId, quantity, amountPaise, orderTime) "
+                        + "VALUES (?, ?, ?, ?, ?)", USER_ID, productId, quantity, amountPaise, Timestamp.from(orderTime));
+            } else {
+                jdbcTemplate.update("INSERT INTO orders (userId, productId, quantity, amountPaise, orderTime, createdAt) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", USER_ID, productId, quantity, amountPaise,
+                        Timestamp.from(orderTime), createdAt);
+            }
+            return jdbcTemplate.queryForObject("SELECT max(id) FROM orders", Long.class);
+        });
+    }
+
+    private long watermark() {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForObject(
+                "SELECT lastOrderId FROM rollup_watermark WHERE name = 'daily_sales'", Long.class));
+    }
+
+    private List<Map<String, Object>> rollupRows() {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForList("SELECT * FROM daily_sales_rollup"));
+    }
+
+    private Map<String, Object> rollupRow(LocalDate day, String productId) {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForMap(
+                "SELECT * FROM daily_sales_rollup WHERE salesDay = ? AND productId = ?", Date.valueOf(day), productId));
+    }
+
+    private Connection openConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.orderapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrency stress test for the in-memory stock ledger: many threads hammer
+ * a single hot product while a background "database" thread keeps flushing
+ * and reconciling, and the ledger must never hand out more units than exist.
+ */
+class StockLedgerTests {
+
+    private static final int THREADS = 64;
+
+    private static final int ATTEMPTS_PER_THREAD = 20_000;
+
+    private static final int INITIAL_STOCK = 100_000;
+
+    @Test
+    void neverOversellsUnderContention() throws Exception {
+        StockLedger ledger = new StockLedger();
+        AtomicLong database = new AtomicLong(INITIAL_STOCK);
+        ledger.reconcile("hot", database.get());
+
+        AtomicLong reserved = new AtomicLong();
+        AtomicLong released = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Stands in for the InventoryService: flush deltas, then reconcile
+        Thread writeBehind = new Thread(() -> {
+            while (running.get()) {
+                Map<String, Long> deltas = ledger.drainPending();
+                deltas.forEach((id, delta) -> database.addAndGet(-delta));
+                ledger.reconcile("hot", database.get());
+                Thread.onSpinWait();
+            }
+        });
+        writeBehind.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int quantity = 1 + random.nextInt(3);
+                    if (ledger.tryReserve("hot", quantity) == StockLedger.Outcome.RESERVED) {
+                        reserved.addAndGet(quantity);
+                        // Roughly one in ten orders fails to save and gives its stock back
+                        if (random.nextInt(10) == 0) {
+                            ledger.release("hot", quantity);
+                            released.addAndGet(quantity);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        running.set(false);
+        writeBehind.join();
+        ledger.drainPending().forEach((id, delta) -> database.addAndGet(-delta));
+        ledger.reconcile("hot", database.get());
+
+        long sold = reserved.get() - released.get();
+        assertTrue(sold <= INITIAL_STOCK, "oversold: " + sold);
+        assertTrue(ledger.available("hot") >= 0);
+        assertEquals(INITIAL_STOCK - sold, database.get());
+        assertEquals(database.get(), ledger.available("hot"));
+        // 64 threads x 20k attempts x ~2 units far exceeds the stock, so it must sell out
+        assertTrue(ledger.available("hot") < 3);
+    }
+
+    @Test
+    void untrackedProductsAreReportedAsUntracked() {
+        StockLedger ledger = new StockLedger();
+        assertEquals(StockLedger.Outcome.UNTRACKED, ledger.tryReserve("unknown", 1_000));
+    }
+
+    @Test
+    void reconcileAccountsForUnflushedReservations() {
+        StockLedger ledger = new StockLedger();
+        ledger.reconcile("p", 10);
+        assertEquals(StockLedger.Outcome.RESERVED, ledger.tryReserve("p", 4));
+
+        // Restock to 20 in the database while 4 units are still unflushed
+        ledger.reconcile("p", 20);
+        assertEquals(16, ledger.available("p"));
+
+        assertEquals(Map.of("p", 4L), ledger.drainPending());
+        ledger.reconcile("p", 16);
+        assertEquals(16, ledger.available("p"));
+        assertEquals(StockLedger.Outcome.INSUFFICIENT, ledger.tryReserve("p", 17));
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.orderapp.sharding;
+
+import com.example.orderapp.controller.OrderController;
+import com.example.orderapp.model.Order;
+import com.example.orderapp.service.InsufficientStockException;
+import com.example.orderapp.service.InventoryService;
+import com.example.orderapp.service.OrderAmountMigration;
+import com.example.orderapp.service.OrderNotFoundException;
+import com.example.orderapp.service.OrderService;
+import com.example.orderapp.service.ProductCatalog;
+import com.example.orderapp.service.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the order paths against three embedded H2 databases standing in for
+ * the shards (see application-shards.properties).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("shards")
+class ShardedOrderTests {
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderController orderController;
+
+    @Autowired
+    private ShardRouter router;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Autowired
+    private ProductCatalog catalog;
+
+    @Autowired
+    private InventoryService inventory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardSchemaInitializer shardSchemaInitializer;
+
+    @BeforeEach
+    void setUp() {
+        router.scatter(shard -> jdbcTemplate.update("DELETE FROM orders"));
+        ShardContext.run(ShardContext.DEFAULT_SHARD, () -> {
+            jdbcTemplate.update("DELETE FROM products");
+            jdbcTemplate.update("INSERT INTO products (productId, name, pricePaise) VALUES ('milk', 'Milk', 5250)");
+            jdbcTemplate.update("INSERT INTO products (productId, name, pricePaise) VALUES ('eggs', 'Eggs', 9000)");
+            jdbcTemplate.update("DELETE FROM inventory");
+            jdbcTemplate.update("INSERT INTO inventory (productId, available) VALUES ('milk', 1000)");
+        });
+        catalog.refresh();
+        inventory.reconcile();
+    }
+
+    @Test
+    void ordersAreStoredOnTheShardOfTheirUser() {
+        for (int i = 0; i < USERS; i++) {
+            orderService.saveOrder("user-" + i, order(2));
+        }
+
+        Set<Integer> usedShards = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < USERS; i++) {
+            String userId = "user-" + i;
+            int shard = router.shardFor(userId);
+            usedShards.add(shard);
+            assertEquals(1, countOnShard(shard, userId));
+
+            List<Order> history = orderService.getHistory(userId);
+            assertEquals(1, history.size());
+            assertEquals(105.0, history.get(0).getAmount());
+            ids.add(history.get(0).getId());
+        }
+        assertEquals(3, usedShards.size());
+        assertEquals(USERS, ids.size());
+
+        Map<String, Object> systemCheck = orderController.systemCheck().getBody();
+        assertEquals((long) USERS, systemCheck.get("totalOrders"));
+    }
+
+    @Test
+    void singleOrderLookupIsScopedToItsOwner() {
+        Order placed = orderService.saveOrder("owner", order(1));
+
+        assertEquals(placed.getId(), orderService.getOrder("owner", placed.getId()).getId());
+        assertThrows(OrderNotFoundException.class, () -> orderService.getOrder("someone-else", placed.getId()));
+        assertThrows(OrderNotFoundException.class, () -> orderService.getOrder("owner", -1L));
+    }
+
+    @Test
+    void productsWithoutInventoryCannotBeOrdered() {
+        Order order = order(1);
+        order.setProductId("eggs");
+
+        assertThrows(InsufficientStockException.class, () -> orderService.saveOrder("owner", order));
+        assertTrue(orderService.getHistory("owner").isEmpty());
+    }
+
+    @Test
+    void rebalanceMovesMisplacedOrdersToTheirShard() {
+        String userId = "user-moved";
+        int home = router.shardFor(userId);
+        int wrong = (home + 1) % router.shardCount();
+        for (int i = 0; i < 3; i++) {
+            ShardContext.run(wrong, () -> jdbcTemplate.update(
+                    "INSERT INTO orders (userId, productId, quantity, amountPaise, orderTime) VALUES (?, 'milk', 1, 5250, ?)",
+                    userId, Timestamp.from(Instant.now())));
+        }
+        assertTrue(orderService.getHistory(userId).isEmpty());
+
+        RebalanceReport dryRun = rebalancer.rebalance(true);
+        assertEquals(1, dryRun.getUsersMoved());
+        assertEquals(3, dryRun.getOrdersMoved());
+        assertEquals(3, countOnShard(wrong, userId));
+
+        RebalanceReport report = rebalancer.rebalance(false);
+        assertEquals(3, report.getOrdersMoved());
+        assertEquals(0, countOnShard(wrong, userId));
+        assertEquals(3, orderService.getHistory(userId).size());
+
+        assertEquals(0, rebalancer.rebalance(false).getOrdersMoved());
+    }
+
+    @Test
+    void rebalanceKeepsTheSalesRollupTotals() {
+        router.scatter(shard -> {
+            jdbcTemplate.update("DELETE FROM daily_sales_rollup");
+            return jdbcTemplate.update("DELETE FROM rollup_watermark");
+        });
+        SalesRollupService rollup = new SalesRollupService(jdbcTemplate, transactionTemplate, router,
+                "UTC", Duration.ZERO, 1000);
+        String userId = "user-rolled-up";
+        int home = router.shardFor(userId);
+        int wrong = (home + 1) % router.shardCount();
+        insertSettledOrder(home, userId, 1000);
+        insertSettledOrder(wrong, userId, 2000);
+        insertSettledOrder(wrong, userId, 3000);
+        rollup.rollUp();
+        // Misplaced but not yet in the rollup of its shard
+        insertSettledOrder(wrong, userId, 4000);
+
+        assertEquals(3, rebalancer.rebalance(false).getOrdersMoved());
+        assertEquals(0, countOnShard(wrong, userId));
+        assertEquals(4, countOnShard(home, userId));
+
+        rollup.rollUp();
+        assertEquals(4.0, rollupTotal("orderCount"));
+        assertEquals(10000.0, rollupTotal("amountSumPaise"));
+
+        // Running the rollup again must not count the moved orders twice
+        insertSettledOrder(home, userId, 5000);
+        rollup.rollUp();
+        assertEquals(5.0, rollupTotal("orderCount"));
+        assertEquals(15000.0, rollupTotal("amountSumPaise"));
+    }
+
+    @Test
+    void legacyAmountsAreMigratedToPaise() {
+        int shard = 1;
+        ShardContext.run(shard, () -> {
+            jdbcTemplate.execute("ALTER TABLE orders ADD COLUMN amount DOUBLE PRECISION DEFAULT 0 NOT NULL");
+            jdbcTemplate.execute("CREATE INDEX idx_orders_user_amount ON orders (userId, amount)");
+            jdbcTemplate.update("INSERT INTO orders (userId, productId, quantity, amount, orderTime) "
+                    + "VALUES ('legacy', 'milk', 3, 0.29, ?)", Timestamp.from(Instant.now()));
+            jdbcTemplate.update("DELETE FROM daily_sales_rollup");
+            jdbcTemplate.execute("ALTER TABLE daily_sales_rollup ADD COLUMN amountSum DOUBLE PRECISION DEFAULT 0 NOT NULL");
+            jdbcTemplate.update("INSERT INTO daily_sales_rollup (salesDay, productId, orderCount, quantitySum, amountSum) "
+                    + "VALUES (DATE '2024-05-01', 'milk', 3, 3, 157.5)");
+            jdbcTemplate.update("DELETE FROM products");
+            jdbcTemplate.execute("ALTER TABLE products ADD COLUMN price DOUBLE PRECISION DEFAULT 0 NOT NULL");
+            jdbcTemplate.update("INSERT INTO products (productId, name, price) VALUES ('legacy-milk', 'Milk', 0.29)");
+        });
+
+        new OrderAmountMigration(router, jdbcTemplate, transactionTemplate, shardSchemaInitializer, true, 10).migrate();
+
+        ShardContext.run(shard, () -> {
+            assertEquals(29L, jdbcTemplate.queryForObject(
+                    "SELECT amountPaise FROM orders WHERE userId = 'legacy'", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns "
+                    + "WHERE table_name = 'orders' AND column_name = 'amount'", Integer.class));
+            assertEquals(15750L, jdbcTemplate.queryForObject(
+                    "SELECT amountSumPaise FROM daily_sales_rollup WHERE productId = 'milk'", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns "
+                    + "WHERE table_name = 'daily_sales_rollup' AND column_name = 'amountsum'", Integer.class));
+            assertEquals(29L, jdbcTemplate.queryForObject(
+                    "SELECT pricePaise FROM products WHERE productId = 'legacy-milk'", Long.class));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns "
+                    + "WHERE table_name = 'products' AND column_name = 'price'", Integer.class));
+        });
+    }
+
+    private long countOnShard(int shard, String userId) {
+        return ShardContext.call(shard, () -> jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE userId = ?", Long.class, userId));
+    }
+
+    private void insertSettledOrder(int shard, String userId, long amountPaise) {
+        ShardContext.run(shard, () -> jdbcTemplate.update("INSERT INTO orders "
+                        + "(userId, productId, quantity, amountPaise, orderTime, createdAt) VALUES (?, 'milk', 1, ?, ?, ?)",
+                userId, amountPaise, Timestamp.from(Instant.now()), Timestamp.from(Instant.now().minusSeconds(3600))));
+    }
+
+    private double rollupTotal(String column) {
+        return router.scatter(shard -> jdbcTemplate.queryForObject(
+                        "SELECT coalesce(sum(" + column + "), 0) FROM daily_sales_rollup", Double.class))
+                .stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    private static Order order(int quantity) {
+        Order order = new Order();
+        order.setProductId("milk");
+        order.setQuantity(quantity);
+        return order;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.orderapp.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Configuration of the connection pools behind the routing DataSource.
+ */
+class ShardingConfigTests {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+            .withProperty("spring.datasource.hikari.connection-timeout", "2500");
+
+    @Test
+    void singleDatabasePoolUsesTheHikariSettings() throws Exception {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:single-pool");
+        dataSourceProperties.afterPropertiesSet();
+
+        Map<Object, DataSource> pools = pools(new ShardingProperties(), dataSourceProperties);
+
+        assertEquals(1, pools.size());
+        assertPool((HikariDataSource) pools.get(0), "shard-0");
+    }
+
+    @Test
+    void shardPoolsUseTheHikariSettings() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setShards(List.of(shard("jdbc:h2:mem:pool-a"), shard("jdbc:h2:mem:pool-b")));
+
+        Map<Object, DataSource> pools = pools(properties, new DataSourceProperties());
+
+        assertEquals(2, pools.size());
+        assertPool((HikariDataSource) pools.get(0), "shard-0");
+        assertPool((HikariDataSource) pools.get(1), "shard-1");
+    }
+
+    private Map<Object, DataSource> pools(ShardingProperties properties, DataSourceProperties dataSourceProperties) {
+        ShardRoutingDataSource routing = new ShardingConfig().dataSource(properties, dataSourceProperties, environment);
+        routing.afterPropertiesSet();
+        return routing.getResolvedDataSources();
+    }
+
+    private static void assertPool(HikariDataSource pool, String poolName) {
+        assertEquals(poolName, pool.getPoolName());
+        assertEquals(7, pool.getMaximumPoolSize());
+        assertEquals(2500, pool.getConnectionTimeout());
+    }
+
+    private static ShardingProperties.Shard shard(String url) {
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setUrl(url);
+        return shard;
+    }
+}